@@ -0,0 +1,30 @@
+package study.datajpa.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.DataJpaApplication;
+
+/*
+벤치마크용 스프링 컨텍스트
+- 웹 서버 없이 애플리케이션 컨텍스트만 띄운다.
+- 외부 H2 서버 대신 인메모리 H2를 사용한다. (벤치마크마다 깨끗한 DB)
+- SQL 로그는 측정에 영향을 주므로 끈다.
+ */
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String databaseName, String... properties) {
+        return new SpringApplicationBuilder(DataJpaApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1",
+                        "logging.level.org.hibernate.SQL=warn",
+                        "logging.level.study.datajpa=warn",
+                        "decorator.datasource.p6spy.enable-logging=false")
+                .properties(properties)
+                .run();
+    }
+}
@@ -0,0 +1,125 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamJpaRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/*
+자주 호출되는 조회의 엔티티 경로 vs DTO 경로 비교
+- entityXxx: 지금처럼 엔티티를 조회해서 MemberDto로 변환 (영속성 컨텍스트, 2차 캐시, 프록시 생성 포함)
+- dtoXxx   : MemberRepositoryCustom의 DTO 메서드. jdbcFastPath 파라미터에 따라
+             false --> JPQL 생성자 표현식, true --> JdbcTemplate + 미리 만든 RowMapper (MemberRepositoryImpl 참고)
+- rowsPerName: 같은 username을 가진 Member 수 (조회 한 번에 읽는 row 수). row가 많을수록 엔티티 생성 비용 차이가 커진다.
+- 실행: ./gradlew jmh -PjmhIncludes=DtoQueryBenchmark
+ */
+@State(Scope.Benchmark)
+public class DtoQueryBenchmark {
+
+    static final int NAMES = 1000;
+    static final int SINGLES = 1000;
+
+    @Param({"1", "100"})
+    int rowsPerName;
+
+    @Param({"false", "true"})
+    boolean jdbcFastPath;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    TransactionTemplate readOnlyTransaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("dto" + rowsPerName + jdbcFastPath,
+                "datajpa.warmup.enabled=false",
+                "datajpa.jdbc-fast-path.enabled=" + jdbcFastPath);
+        memberRepository = context.getBean(MemberRepository.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        List<Team> teams = IntStream.range(0, 10).mapToObj(i -> new Team("team" + i)).toList();
+        context.getBean(TeamJpaRepository.class).saveAllBatched(teams, 100);
+
+        List<Member> members = new ArrayList<>(NAMES * rowsPerName + SINGLES);
+        for (int i = 0; i < NAMES * rowsPerName; i++) {
+            Member member = new Member("member" + (i % NAMES), 20 + i % 50);
+            member.setTeam(teams.get(i % teams.size()));
+            members.add(member);
+        }
+        // findOptionalByUsername 용: username이 유일한 Member
+        for (int i = 0; i < SINGLES; i++) {
+            Member member = new Member("single" + i, 30);
+            member.setTeam(teams.get(i % teams.size()));
+            members.add(member);
+        }
+        context.getBean(MemberJpaRepository.class).saveAllBatched(members, 1000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /* findByUsernameAndAgeGreaterThan */
+
+    @Benchmark
+    public List<MemberDto> entityFindByUsernameAndAgeGreaterThan() {
+        return readOnlyTransaction.execute(status -> memberRepository
+                .findByUsernameAndAgeGreaterThan(randomName(), 10).stream()
+                .map(DtoQueryBenchmark::toDto)
+                .toList());
+    }
+
+    @Benchmark
+    public List<MemberDto> dtoFindByUsernameAndAgeGreaterThan() {
+        return readOnlyTransaction.execute(status -> memberRepository
+                .findDtoByUsernameAndAgeGreaterThan(randomName(), 10));
+    }
+
+    /* findOptionalByUsername */
+
+    @Benchmark
+    public Optional<MemberDto> entityFindOptionalByUsername() {
+        return readOnlyTransaction.execute(status -> memberRepository
+                .findOptionalByUsername(randomSingle())
+                .map(DtoQueryBenchmark::toDto));
+    }
+
+    @Benchmark
+    public Optional<MemberDto> dtoFindOptionalByUsername() {
+        return readOnlyTransaction.execute(status -> memberRepository.findOptionalDtoByUsername(randomSingle()));
+    }
+
+    // team 이름을 읽으므로 엔티티 경로는 Team 프록시도 초기화한다. (2차 캐시 적중)
+    private static MemberDto toDto(Member member) {
+        return new MemberDto(member.getId(), member.getUsername(),
+                member.getTeam() == null ? null : member.getTeam().getName());
+    }
+
+    private static String randomName() {
+        return "member" + ThreadLocalRandom.current().nextInt(NAMES);
+    }
+
+    private static String randomSingle() {
+        return "single" + ThreadLocalRandom.current().nextInt(SINGLES);
+    }
+}
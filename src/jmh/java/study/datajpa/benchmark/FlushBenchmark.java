@@ -0,0 +1,88 @@
+package study.datajpa.benchmark;
+
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberJpaRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+flush 비용 측정: 엔티티를 많이 읽고(loaded) 일부만(modified) 수정하는 쓰기 트랜잭션
+- 바이트코드 향상 없음: flush 할 때 영속성 컨텍스트의 모든 엔티티를 스냅샷과 속성 단위로 비교한다. --> loaded에 비례
+- 향상된 dirty tracking: 엔티티가 setter 호출 시 변경 여부를 직접 기록한다. --> 비교를 생략하므로 modified에 비례
+- 비교 방법 (build.gradle 참고)
+    ./gradlew jmh -PjmhIncludes=FlushBenchmark                   (향상 적용)
+    ./gradlew jmh -PjmhIncludes=FlushBenchmark -PnoEnhancement   (향상 없음)
+  실행 로그의 "dirty tracking: enhanced / snapshot" 으로 어느 쪽인지 확인할 수 있다.
+- 측정 대상은 flush 뿐이다. 조회, 수정은 매 호출 전(Level.Invocation)에 하고 호출 후에 롤백한다.
+ */
+@State(Scope.Benchmark)
+public class FlushBenchmark {
+
+    @Param({"10000"})
+    int loaded;
+
+    @Param({"100"})
+    int modified;
+
+    ConfigurableApplicationContext context;
+    EntityManagerFactory emf;
+    EntityManager em;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("flush" + loaded, "datajpa.warmup.enabled=false");
+        emf = context.getBean(EntityManagerFactory.class);
+
+        List<Member> members = new ArrayList<>(loaded);
+        for (int i = 0; i < loaded; i++) {
+            members.add(new Member("member" + i, i % 100));
+        }
+        context.getBean(MemberJpaRepository.class).saveAllBatched(members, 1000);
+
+        boolean enhanced = SelfDirtinessTracker.class.isAssignableFrom(Member.class);
+        System.out.println("dirty tracking: " + (enhanced ? "enhanced" : "snapshot"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // 2차 캐시, 쿼리 캐시를 거치지 않도록 EntityManager를 직접 사용한다.
+    @Setup(Level.Invocation)
+    public void loadAndModify() {
+        em = emf.createEntityManager();
+        em.getTransaction().begin();
+        List<Member> members = em.createQuery("select m from Member m", Member.class)
+                .setMaxResults(loaded)
+                .getResultList();
+        int step = Math.max(1, members.size() / modified);
+        for (int i = 0; i < members.size() && i / step < modified; i += step) {
+            Member member = members.get(i);
+            member.setAge(member.getAge() + 1);
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void rollback() {
+        em.getTransaction().rollback();
+        em.close();
+    }
+
+    @Benchmark
+    public void flush() {
+        em.flush();
+    }
+}
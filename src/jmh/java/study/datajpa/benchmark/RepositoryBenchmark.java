@@ -0,0 +1,197 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamJpaRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/*
+MemberJpaRepository(순수 JPA) vs MemberRepository(스프링 데이터 JPA) 성능 비교
+- 같은 기능을 하는 메서드를 짝지어 측정한다. (jpaXxx vs dataXxx)
+- 각 호출은 실제 서비스처럼 트랜잭션 하나에서 실행한다.
+- 데이터를 바꾸는 벤치마크(save, bulkAgePlus)는 롤백해서 데이터 크기를 유지한다.
+- 스프링 캐시는 끈다. (spring.cache.type=none) 켜 두면 totalCount 같은 @Cacheable 메서드는 캐시 히트만 측정된다.
+- datasetSize: 미리 넣어 둘 Member 수. 실행 시 -p datasetSize=1000,1000000 처럼 바꿀 수 있다.
+ */
+@State(Scope.Benchmark)
+public class RepositoryBenchmark {
+
+    static final int PAGE_SIZE = 20;
+    static final int NAMES_SIZE = 100;
+    static final int AGE_COUNT = 100;
+
+    @Param({"1000", "100000"})
+    int datasetSize;
+
+    ConfigurableApplicationContext context;
+    MemberJpaRepository memberJpaRepository;
+    MemberRepository memberRepository;
+    TransactionTemplate transaction;
+    TransactionTemplate readOnlyTransaction;
+
+    long minId;
+    long maxId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 조회 결과 캐시(@Cacheable totalCount 등)를 끄고 쿼리 자체를 비교한다.
+        context = BenchmarkContext.start("repository" + datasetSize, "spring.cache.type=none");
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+        memberRepository = context.getBean(MemberRepository.class);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        TeamJpaRepository teamJpaRepository = context.getBean(TeamJpaRepository.class);
+        List<Team> teams = IntStream.range(0, 10).mapToObj(i -> new Team("team" + i, i % 2 == 0 ? "Korea" : "England")).toList();
+        teamJpaRepository.saveAllBatched(teams, 100);
+
+        List<Member> members = new ArrayList<>(datasetSize);
+        for (int i = 0; i < datasetSize; i++) {
+            Member member = new Member("member" + i, i % AGE_COUNT);
+            member.setTeam(teams.get(i % teams.size()));
+            members.add(member);
+        }
+        memberJpaRepository.saveAllBatched(members, 1000);
+
+        minId = members.get(0).getId();
+        maxId = members.get(members.size() - 1).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /* save */
+
+    @Benchmark
+    public Member jpaSave() {
+        return transaction.execute(status -> {
+            status.setRollbackOnly();
+            return memberJpaRepository.save(new Member("new", randomAge()));
+        });
+    }
+
+    @Benchmark
+    public Member dataSave() {
+        return transaction.execute(status -> {
+            status.setRollbackOnly();
+            return memberRepository.save(new Member("new", randomAge()));
+        });
+    }
+
+    /* findById */
+
+    @Benchmark
+    public Optional<Member> jpaFindById() {
+        return readOnlyTransaction.execute(status -> memberJpaRepository.findById(randomId()));
+    }
+
+    @Benchmark
+    public Optional<Member> dataFindById() {
+        return readOnlyTransaction.execute(status -> memberRepository.findById(randomId()));
+    }
+
+    /* findByUsername */
+
+    @Benchmark
+    public List<Member> jpaFindByUsername() {
+        return readOnlyTransaction.execute(status -> memberJpaRepository.findByUsername(randomUsername()));
+    }
+
+    @Benchmark
+    public List<Member> dataFindByUsername() {
+        return readOnlyTransaction.execute(status -> memberRepository.findByUsername(randomUsername()));
+    }
+
+    /* 페이징: findByPage + totalCount vs findPageByAge, findSliceByAge */
+
+    @Benchmark
+    public long jpaFindByPage() {
+        return readOnlyTransaction.execute(status -> {
+            int age = randomAge();
+            List<Member> content = memberJpaRepository.findByPage(age, randomPage() * PAGE_SIZE, PAGE_SIZE);
+            return content.size() + memberJpaRepository.totalCount(age);
+        });
+    }
+
+    @Benchmark
+    public Page<Member> dataFindPageByAge() {
+        return readOnlyTransaction.execute(status -> memberRepository.findPageByAge(randomAge(), pageRequest()));
+    }
+
+    @Benchmark
+    public Slice<Member> dataFindSliceByAge() {
+        return readOnlyTransaction.execute(status -> memberRepository.findSliceByAge(randomAge(), pageRequest()));
+    }
+
+    /* findByNames (in 절) */
+
+    @Benchmark
+    public List<Member> dataFindByNames() {
+        List<String> names = IntStream.range(0, NAMES_SIZE).mapToObj(i -> randomUsername()).toList();
+        return readOnlyTransaction.execute(status -> memberRepository.findByNames(names));
+    }
+
+    /* bulkAgePlus */
+
+    @Benchmark
+    public int jpaBulkAgePlus() {
+        return transaction.execute(status -> {
+            status.setRollbackOnly();
+            return memberJpaRepository.bulkAgePlus(AGE_COUNT - 10);
+        });
+    }
+
+    @Benchmark
+    public int dataBulkAgePlus() {
+        return transaction.execute(status -> {
+            status.setRollbackOnly();
+            return memberRepository.bulkAgePlus(AGE_COUNT - 10);
+        });
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(minId, maxId + 1);
+    }
+
+    private String randomUsername() {
+        return "member" + ThreadLocalRandom.current().nextInt(datasetSize);
+    }
+
+    private int randomAge() {
+        return ThreadLocalRandom.current().nextInt(AGE_COUNT);
+    }
+
+    // 나이 별 Member 수(datasetSize / AGE_COUNT) 안에서 페이지를 고른다.
+    private int randomPage() {
+        int pages = Math.max(datasetSize / AGE_COUNT / PAGE_SIZE, 1);
+        return ThreadLocalRandom.current().nextInt(pages);
+    }
+
+    private PageRequest pageRequest() {
+        return PageRequest.of(randomPage(), PAGE_SIZE, Sort.by(Sort.Direction.DESC, "username"));
+    }
+}
@@ -0,0 +1,71 @@
+package study.datajpa.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import study.datajpa.entity.BaseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/*
+조건부 GET (ETag, Last-Modified)
+- ETag: 응답에 포함된 엔티티들의 (id, version) + 페이지 정보로 만든다. 엔티티가 하나라도 수정/추가/삭제되면 바뀐다.
+  응답에 연관 엔티티의 값도 들어가면(MemberResponse의 teamName 등) 연관 엔티티도 함께 넘겨야 한다.
+- Last-Modified: 단건 조회 응답에만 넣는다. (엔티티와 연관 엔티티의 lastModifiedDate 중 가장 최근 값)
+  벌크 수정도 lastModifiedDate를 함께 갱신해야 한다. (MemberRepository.bulkAgePlus, ChunkedBulkUpdater 참고)
+  목록/슬라이스는 엔티티가 삭제되거나 페이지에서 빠져도 남은 엔티티들의 최근 수정 시각은 그대로일 수 있어서 ETag로만 검증한다.
+- ResponseEntity에 ETag, Last-Modified를 넣어 두면 스프링 MVC가 If-None-Match / If-Modified-Since 요청 헤더와 비교해서
+  같으면 바디를 직렬화하지 않고 304 Not Modified를 보낸다.
+- Cache-Control: no-cache --> 클라이언트는 캐시해 두되, 쓸 때마다 서버에 재검증(조건부 GET)한다.
+ */
+final class HttpCaching {
+
+    private HttpCaching() {
+    }
+
+    // 단건 조회: ETag + Last-Modified
+    // related: 응답에 값이 포함된 연관 엔티티 (null은 무시)
+    static <T> ResponseEntity<T> conditional(T body, BaseEntity entity, BaseEntity... related) {
+        List<BaseEntity> entities = new ArrayList<>();
+        entities.add(entity);
+        Arrays.stream(related).filter(Objects::nonNull).forEach(entities::add);
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag(entities));
+        // 하나라도 수정 시각이 없으면 Last-Modified로는 검증할 수 없으므로 ETag만 보낸다.
+        if (entities.stream().allMatch(e -> e.getLastModifiedDate() != null)) {
+            entities.stream()
+                    .map(BaseEntity::getLastModifiedDate)
+                    .max(Comparator.naturalOrder())
+                    .ifPresent(date -> builder.lastModified(date.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()));
+        }
+        return builder.body(body);
+    }
+
+    // 목록/슬라이스 조회: ETag만
+    static <T> ResponseEntity<T> conditional(T body, Collection<? extends BaseEntity> entities, Object... context) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag(entities, context))
+                .body(body);
+    }
+
+    private static String etag(Collection<? extends BaseEntity> entities, Object... context) {
+        CRC32 crc = new CRC32();
+        for (Object value : context) {
+            crc.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        }
+        for (BaseEntity entity : entities) {
+            crc.update((entity.getId() + ":" + entity.getVersion() + ";").getBytes(StandardCharsets.UTF_8));
+        }
+        return "W/\"" + Long.toHexString(crc.getValue()) + "-" + entities.size() + "\"";
+    }
+}
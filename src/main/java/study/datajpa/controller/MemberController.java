@@ -0,0 +1,93 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import study.datajpa.dto.KeysetResponse;
+import study.datajpa.dto.MemberResponse;
+import study.datajpa.dto.MemberSummary;
+import study.datajpa.entity.BaseEntity;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.KeysetCursor;
+import study.datajpa.repository.KeysetSlice;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/*
+Member 조회 API
+- 엔티티가 아니라 DTO(MemberResponse, MemberSummary)를 반환한다.
+- team이 필요한 응답은 @EntityGraph로 fetch join 해서 가져온다. (지연 로딩, N + 1 없음)
+- 조건부 GET을 지원한다. (HttpCaching)
+ */
+@RestController
+@RequiredArgsConstructor
+public class MemberController {
+
+    private final MemberRepository memberRepository;
+
+    // 예: /members?page=0&size=20&sort=username,desc  (size 최대 100: spring.data.web.pageable.max-page-size)
+    @GetMapping("/members")
+    public ResponseEntity<Page<MemberResponse>> list(@PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        Page<Member> page = memberRepository.findAllWithTeamBy(pageable);
+        return HttpCaching.conditional(page.map(MemberResponse::of), withTeams(page.getContent()),
+                pageable, page.getTotalElements());
+    }
+
+    // 키셋 페이징: 깊은 페이지도 첫 페이지와 비용이 같다. (username desc, id desc 정렬)
+    // 예: /members/keyset?age=10&size=20 --> 응답의 nextCursor를 cursor로 넘겨서 다음 페이지 요청
+    @GetMapping("/members/keyset")
+    public ResponseEntity<KeysetResponse<MemberSummary>> keyset(@RequestParam int age,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(defaultValue = "20") int size) {
+        if (size < 1 || size > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size는 1 ~ 100 이어야 합니다: " + size);
+        }
+        KeysetSlice<Member> slice = memberRepository.findKeysetByAge(age, decode(cursor), size);
+        List<MemberSummary> content = slice.getContent().stream()
+                .map(m -> new MemberSummary(m.getId(), m.getUsername(), m.getAge()))
+                .toList();
+        String nextCursor = slice.hasNext() ? slice.getNextCursor().encode() : null;
+        return HttpCaching.conditional(new KeysetResponse<>(content, nextCursor), slice.getContent(),
+                age, cursor, size);
+    }
+
+    @GetMapping("/members/{id}")
+    public ResponseEntity<MemberResponse> get(@PathVariable Long id) {
+        Member member = memberRepository.findWithTeamById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Member가 없습니다: " + id));
+        return HttpCaching.conditional(MemberResponse.of(member), member, member.getTeam());
+    }
+
+    // MemberResponse에는 팀 이름이 들어가므로 팀이 수정되어도 ETag가 바뀌어야 한다.
+    private static List<BaseEntity> withTeams(List<Member> members) {
+        List<BaseEntity> entities = new ArrayList<>(members);
+        members.stream()
+                .map(Member::getTeam)
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(entities::add);
+        return entities;
+    }
+
+    private static KeysetCursor decode(String cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        try {
+            return KeysetCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+}
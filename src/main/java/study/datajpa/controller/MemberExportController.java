@@ -0,0 +1,40 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import study.datajpa.service.MemberExportService;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@RestController
+@RequiredArgsConstructor
+public class MemberExportController {
+
+    private final MemberExportService memberExportService;
+
+    // 응답 바디를 만들어서 반환하지 않고, HttpServletResponse 출력 스트림에 바로 쓴다.
+    // format: ndjson(기본), csv
+    @GetMapping("/members/export")
+    public void export(@RequestParam(defaultValue = "ndjson") String format,
+                       @RequestParam(defaultValue = "1000") int fetchSize,
+                       HttpServletResponse response) throws IOException {
+        switch (format) {
+            case "ndjson" -> {
+                response.setContentType("application/x-ndjson;charset=UTF-8");
+                memberExportService.writeNdjson(response.getOutputStream(), fetchSize);
+            }
+            case "csv" -> {
+                response.setContentType("text/csv;charset=UTF-8");
+                response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"members.csv\"");
+                memberExportService.writeCsv(response.getOutputStream(), fetchSize);
+            }
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "지원하지 않는 format 입니다: " + format);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import study.datajpa.dto.MemberSummary;
+import study.datajpa.dto.TeamSummary;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.TeamRepository;
+
+/*
+Team 조회 API (MemberController 참고)
+- 팀원 목록은 team.getMembers() 대신 Slice로 나눠서 조회한다. (팀원이 많은 팀 대비)
+ */
+@RestController
+@RequiredArgsConstructor
+public class TeamController {
+
+    private final TeamRepository teamRepository;
+
+    // 예: /teams?nationality=Korea&page=0&size=20&sort=name
+    @GetMapping("/teams")
+    public ResponseEntity<Page<TeamSummary>> list(@RequestParam(required = false) String nationality,
+                                                  @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        Page<Team> page = nationality == null
+                ? teamRepository.findAll(pageable)
+                : teamRepository.findByNationality(nationality, pageable);
+        return HttpCaching.conditional(page.map(TeamController::summary), page.getContent(),
+                nationality, pageable, page.getTotalElements());
+    }
+
+    @GetMapping("/teams/{id}")
+    public ResponseEntity<TeamSummary> get(@PathVariable Long id) {
+        Team team = teamRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Team이 없습니다: " + id));
+        return HttpCaching.conditional(summary(team), team);
+    }
+
+    // 예: /teams/1/members?page=0&size=50&sort=username
+    @GetMapping("/teams/{id}/members")
+    public ResponseEntity<Slice<MemberSummary>> members(@PathVariable Long id,
+                                                        @PageableDefault(size = 50, sort = "id") Pageable pageable) {
+        Slice<Member> slice = teamRepository.findMembersByTeamId(id, pageable);
+        return HttpCaching.conditional(slice.map(m -> new MemberSummary(m.getId(), m.getUsername(), m.getAge())),
+                slice.getContent(), id, pageable);
+    }
+
+    private static TeamSummary summary(Team team) {
+        return new TeamSummary(team.getId(), team.getName(), team.getNationality());
+    }
+}
@@ -0,0 +1,171 @@
+package study.datajpa.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+읽기/쓰기 라우팅 DataSource
+- @Transactional(readOnly = true) 트랜잭션(스프링 데이터 JPA의 조회 메서드 기본값)은 복제본으로,
+  그 외(save, bulkAgePlus, 트랜잭션 밖 호출)는 primary로 보낸다.
+- 트랜잭션의 readOnly 여부는 커넥션을 실제로 얻는 시점에 알 수 있으므로
+  반드시 LazyConnectionDataSourceProxy로 감싸서 사용해야 한다. (RoutingDataSourceConfig)
+- 복제본은 라운드 로빈으로 고르고, 주기적으로 상태를 점검해서 응답하지 않는 복제본은 건너뛴다.
+  사용할 수 있는 복제본이 없으면 primary에서 읽는다.
+- read your writes: 쓰기 트랜잭션을 커밋한 스레드는 readYourWritesWindow 동안 읽기도 primary에서 한다.
+  같은 요청 안에서 저장 직후 조회했는데 복제 지연 때문에 안 보이는 문제를 막는다.
+  (스레드 기준이므로 다른 요청이 같은 스레드를 이어 쓰면 그 요청도 잠깐 primary에서 읽는다. 정합성에는 문제 없다.)
+- 종료(destroy)할 때 상태 점검 스레드를 멈추고, 닫을 수 있는(AutoCloseable) primary/복제본 DataSource를 닫는다.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    static final String PRIMARY = "primary";
+
+    private final ThreadLocal<Long> lastWriteNanos = new ThreadLocal<>();
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final long readYourWritesWindowNanos;
+    private final Duration healthCheckInterval;
+    private final int healthCheckTimeoutSeconds;
+    private ScheduledExecutorService healthChecker;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicaDataSources, RoutingProperties properties) {
+        this.readYourWritesWindowNanos = properties.readYourWritesWindow().toNanos();
+        this.healthCheckInterval = properties.healthCheckInterval();
+        this.healthCheckTimeoutSeconds = (int) Math.max(1, properties.healthCheckTimeout().toSeconds());
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicaDataSources.size(); i++) {
+            Replica replica = new Replica("replica-" + i, replicaDataSources.get(i));
+            replicas.add(replica);
+            targets.put(replica.key, replica.dataSource);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkHealth();  // 첫 점검은 바로 해서 시작하자마자 죽은 복제본으로 보내지 않도록 한다.
+        if (!replicas.isEmpty()) {
+            healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "replica-health-check");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = healthCheckInterval.toMillis();
+            healthChecker.scheduleWithFixedDelay(this::checkHealth, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // primary, 복제본 커넥션 풀은 빈이 아니므로(RoutingDataSourceConfig) 스프링이 닫아 주지 않는다. 여기서 닫는다.
+    @Override
+    public void destroy() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+        getResolvedDataSources().forEach((key, dataSource) -> {
+            if (dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("failed to close data source {}", key, e);
+                }
+            }
+        });
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            trackWrite();
+            return PRIMARY;
+        }
+        if (readsOwnWrites()) {
+            return PRIMARY;
+        }
+        Replica replica = nextHealthyReplica();
+        return replica == null ? PRIMARY : replica.key;
+    }
+
+    void checkHealth() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                healthy = connection.isValid(healthCheckTimeoutSeconds);
+            } catch (SQLException | RuntimeException e) {
+                healthy = false;
+            }
+            if (replica.healthy != healthy) {
+                log.warn("replica {} is now {}", replica.key, healthy ? "UP" : "DOWN");
+            }
+            replica.healthy = healthy;
+        }
+    }
+
+    private Replica nextHealthyReplica() {
+        int size = replicas.size();
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), size));
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    // 쓰기 트랜잭션이 커밋되면 시각을 기록한다.
+    private void trackWrite() {
+        if (readYourWritesWindowNanos > 0 && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    lastWriteNanos.set(System.nanoTime());
+                }
+            });
+        }
+    }
+
+    private boolean readsOwnWrites() {
+        Long lastWrite = lastWriteNanos.get();
+        if (lastWrite == null) {
+            return false;
+        }
+        if (System.nanoTime() - lastWrite < readYourWritesWindowNanos) {
+            return true;
+        }
+        lastWriteNanos.remove();
+        return false;
+    }
+
+    private static final class Replica {
+
+        private final String key;
+        private final DataSource dataSource;
+        private volatile boolean healthy;
+
+        private Replica(String key, DataSource dataSource) {
+            this.key = key;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package study.datajpa.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+읽기/쓰기 라우팅 DataSource 설정 (datajpa.routing.enabled=true 일 때만 사용, application-routing.yml 참고)
+- DataSource 빈을 직접 등록하므로 스프링 부트의 DataSource 자동 설정은 동작하지 않는다.
+- primary, 복제본 커넥션 풀(Hikari)은 빈으로 등록하지 않는다. (p6spy가 라우팅 전 dataSource 빈 하나만 감싸도록)
+  빈이 아니므로 컨텍스트 종료 시 ReplicaRoutingDataSource.destroy()가 닫는다.
+- routingDataSource 빈은 p6spy 대상에서 제외한다. (decorator.datasource.exclude-beans)
+ */
+@Configuration
+@ConditionalOnProperty(name = "datajpa.routing.enabled", havingValue = "true")
+@EnableConfigurationProperties(RoutingProperties.class)
+public class RoutingDataSourceConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(DataSourceProperties dataSourceProperties, RoutingProperties routingProperties) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName("primary");
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < routingProperties.replicas().size(); i++) {
+            RoutingProperties.Replica replica = routingProperties.replicas().get(i);
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(dataSourceProperties.determineDriverClassName())
+                    .url(replica.url())
+                    .username(replica.username())
+                    .password(replica.password())
+                    .build();
+            dataSource.setPoolName("replica-" + i);
+            dataSource.setReadOnly(true);
+            // 죽은 복제본 때문에 상태 점검이 오래 멈추지 않도록 한다.
+            dataSource.setConnectionTimeout(Math.max(250, routingProperties.healthCheckTimeout().toMillis()));
+            replicas.add(dataSource);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, routingProperties);
+    }
+
+    // 트랜잭션 시작 시점이 아니라 첫 SQL 실행 시점에 커넥션을 얻는다.
+    // 그래야 readOnly 여부가 정해진 뒤에 라우팅할 수 있다.
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
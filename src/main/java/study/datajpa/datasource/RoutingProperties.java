@@ -0,0 +1,33 @@
+package study.datajpa.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/*
+읽기/쓰기 DataSource 라우팅 설정 (datajpa.routing.*)
+- primary는 spring.datasource 설정을 그대로 사용한다.
+- replicas               : 읽기 전용 복제본 목록
+- read-your-writes-window: 쓰기 트랜잭션을 커밋한 스레드는 이 시간 동안 읽기도 primary에서 한다. (복제 지연 대비, 0이면 끔)
+- health-check-interval  : 복제본 상태 점검 주기
+- health-check-timeout   : 복제본 커넥션 획득/검증 제한 시간
+ */
+@ConstructorBinding
+@ConfigurationProperties("datajpa.routing")
+public record RoutingProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("1s") Duration readYourWritesWindow,
+        @DefaultValue("5s") Duration healthCheckInterval,
+        @DefaultValue("2s") Duration healthCheckTimeout,
+        List<Replica> replicas) {
+
+    public RoutingProperties {
+        replicas = replicas == null ? List.of() : List.copyOf(replicas);
+    }
+
+    public record Replica(String url, String username, String password) {
+    }
+}
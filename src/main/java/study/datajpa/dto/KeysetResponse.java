@@ -0,0 +1,11 @@
+package study.datajpa.dto;
+
+import java.util.List;
+
+// 키셋 페이징 REST API 응답. 다음 페이지는 nextCursor를 cursor 파라미터로 넘겨서 요청한다. (마지막 페이지면 null)
+public record KeysetResponse<T>(List<T> content, String nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -2,8 +2,11 @@ package study.datajpa.dto;
 
 import lombok.Data;
 
+import java.io.Serializable;
+
+// 조회 결과 캐시(QueryCacheConfig)에 저장된다. 외부 캐시 프로바이더를 쓰면 직렬화가 필요하다.
 @Data
-public class MemberDto {
+public class MemberDto implements Serializable {
 
     private Long id;
     private String username;
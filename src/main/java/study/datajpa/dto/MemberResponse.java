@@ -0,0 +1,15 @@
+package study.datajpa.dto;
+
+import study.datajpa.entity.Member;
+
+// REST API 응답용 Member DTO. 엔티티를 그대로 직렬화하지 않는다. (지연 로딩, 양방향 순환 참조 방지)
+// team은 fetch join(@EntityGraph)으로 함께 조회한 경우에만 사용하자.
+public record MemberResponse(Long id, String username, int age, Long teamId, String teamName) {
+
+    public static MemberResponse of(Member member) {
+        return member.getTeam() == null
+                ? new MemberResponse(member.getId(), member.getUsername(), member.getAge(), null, null)
+                : new MemberResponse(member.getId(), member.getUsername(), member.getAge(),
+                        member.getTeam().getId(), member.getTeam().getName());
+    }
+}
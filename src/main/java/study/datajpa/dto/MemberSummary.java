@@ -0,0 +1,10 @@
+package study.datajpa.dto;
+
+/*
+클래스(record) 기반 Projection
+- 생성자 파라미터 이름이 엔티티 속성 이름과 같아야 한다. (id, username, age)
+- 메소드 이름으로 생성한 쿼리라면 생성자 파라미터에 해당하는 컬럼만 조회한다.
+- 엔티티가 아니므로 영속성 컨텍스트에 올라가지 않고, 변경 감지용 스냅샷도 만들지 않는다.
+ */
+public record MemberSummary(Long id, String username, int age) {
+}
@@ -0,0 +1,5 @@
+package study.datajpa.dto;
+
+// 클래스(record) 기반 Projection (MemberSummary 참고)
+public record TeamSummary(Long id, String name, String nationality) {
+}
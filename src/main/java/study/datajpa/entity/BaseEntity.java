@@ -0,0 +1,35 @@
+package study.datajpa.entity;
+
+import lombok.Getter;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import javax.persistence.Column;
+import javax.persistence.EntityListeners;
+import javax.persistence.MappedSuperclass;
+import java.time.LocalDateTime;
+
+/*
+엔티티 공통 속성
+- 스프링 데이터 JPA Auditing으로 생성/수정 시각을 자동으로 채운다. (DataJpaApplication의 @EnableJpaAuditing)
+- REST API의 Last-Modified, ETag(id + version) 계산에 사용한다.
+- 벌크 수정(update versioned ...)은 엔티티를 거치지 않으므로 auditing이 동작하지 않는다.
+  version은 올라가지만 lastModifiedDate는 쿼리에서 직접 갱신해야 한다. (lastModifiedDate = current_timestamp)
+ */
+@Getter
+@MappedSuperclass
+@EntityListeners(AuditingEntityListener.class)
+public abstract class BaseEntity {
+
+    @CreatedDate
+    @Column(updatable = false)
+    private LocalDateTime createdDate;
+
+    @LastModifiedDate
+    private LocalDateTime lastModifiedDate;
+
+    public abstract Long getId();
+
+    public abstract Long getVersion();
+}
@@ -1,10 +1,29 @@
 package study.datajpa.entity;
 
 import lombok.*;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import study.datajpa.repository.support.EntityChangeListener;
 
 import javax.persistence.*;
 
 @Entity
+/*
+인덱스는 리포지토리 쿼리 패턴에서 정했다. (datajpa.explain-check.enabled=true 로 실행하면 풀 스캔 쿼리를 로그로 알려준다.)
+- username, age          : findByUsername, findByUsernameAndAgeGreaterThan, findUser, findByNames
+- age, username, id desc : findPageByAge, findSliceByAge, findKeysetByAge (age 조건 + username desc, id desc 정렬)
+                           count 쿼리도 테이블을 읽지 않고 인덱스만 읽는다.
+- team_id                : team.getMembers() 로딩, team 조인
+ */
+@Table(indexes = {
+        @Index(name = "idx_member_username_age", columnList = "username, age"),
+        @Index(name = "idx_member_age_username_id", columnList = "age, username desc, member_id desc"),
+        @Index(name = "idx_member_team", columnList = "team_id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "member")  // 2차 캐시 (application.conf 참고)
+@EntityListeners(EntityChangeListener.class)   // 저장/수정/삭제 시 EntityChangedEvent 발행 (조회 캐시 무효화용)
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -13,15 +32,26 @@ import javax.persistence.*;
         name = "Member.findByUsername", // 아무 이름이나 상관없다. 이름 자체에 rule은 없다.
         query = "select m from Member m where m.username = :username"
 )
-public class Member {
+@NamedEntityGraph(name = "Member.team", attributeNodes = @NamedAttributeNode("team"))   // team을 fetch join 하는 fetch plan
+public class Member extends BaseEntity {
 
+    // 시퀀스를 allocationSize 만큼 한 번에 할당 받는다. (pooled optimizer)
+    // 기본 @GeneratedValue는 persist 할 때마다 시퀀스를 조회하므로 대량 insert 시 쿼리가 2배로 나간다.
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 50)
     @Column(name = "member_id")
     private Long id;
     private String username;
     private int age;
 
+    // 낙관적 락: 수정할 때 "where version = ?" 조건을 붙이고 version을 1 올린다.
+    // 그 사이 다른 트랜잭션이 먼저 수정했다면 OptimisticLockException 이 발생한다. (ConflictRetryExecutor로 재시도)
+    // 래퍼 타입(Long)이면 스프링 데이터 JPA가 version == null 로 새 엔티티 여부를 판단한다. (save 시 merge 대신 persist)
+    @Version
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "team_id")
     private Team team;
@@ -43,7 +73,15 @@ public class Member {
         this.age = age;
     }
 
+    // 양방향 연관관계 편의 메서드
+    // Team.members는 지연 로딩되는 inverse(mappedBy) bag 이다. 초기화되지 않은 상태에서 add 하면
+    // 하이버네이트가 컬렉션을 로딩하지 않고 작업을 큐에 쌓아 두므로, 팀원이 많은 팀이라도 항상 추가한다.
+    // (같은 트랜잭션에서 flush 전에 team.getMembers()를 읽어도 새 팀원이 보인다.)
+    // remove는 큐에 쌓이지 않고 컬렉션을 로딩하므로 이전 팀의 컬렉션이 이미 로딩된 경우에만 반영한다.
     public void changeTeam(Team team) {
+        if (this.team != null && Hibernate.isInitialized(this.team) && Hibernate.isInitialized(this.team.getMembers())) {
+            this.team.getMembers().remove(this);
+        }
         this.team = team;
         team.getMembers().add(this);
     }
@@ -1,25 +1,49 @@
 package study.datajpa.entity;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.LazyCollection;
+import org.hibernate.annotations.LazyCollectionOption;
+import study.datajpa.repository.support.EntityChangeListener;
 
 import javax.persistence.*;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Table(indexes = @Index(name = "idx_team_nationality_name", columnList = "nationality, name"))  // findByNationality (+ name 정렬)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "team")    // 2차 캐시 (application.conf 참고)
+@EntityListeners(EntityChangeListener.class)   // 저장/수정/삭제 시 EntityChangedEvent 발행 (조회 캐시 무효화용)
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
-public class Team {
+public class Team extends BaseEntity {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_seq_generator")
+    @SequenceGenerator(name = "team_seq_generator", sequenceName = "team_seq", allocationSize = 50)
     @Column(name = "team_id")
     private Long id;
     private String name;
 
     private String nationality;
 
+    // 낙관적 락 (Member.version 참고)
+    @Version
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
+    /*
+    팀원이 아주 많은 팀(수만 ~ 수십만 명)을 고려한 컬렉션
+    - EXTRA: size(), contains(), isEmpty()는 컬렉션을 로딩하지 않고 count / exists SQL로 처리한다.
+    - 연관관계 주인은 Member.team 이므로 이 컬렉션은 읽기 전용처럼 다룬다.
+      Member.changeTeam은 항상 추가하고(로딩되지 않은 컬렉션이면 작업만 큐에 쌓인다.), 제거는 이미 로딩된 컬렉션에만 한다.
+    - 팀원 목록을 전부 순회하면 전체가 로딩된다. 화면에서는 TeamRepository.findMembersByTeamId(페이징)를 사용하자.
+     */
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "teamMembers")
+    @LazyCollection(LazyCollectionOption.EXTRA)
     @OneToMany(mappedBy = "team")
     private List<Member> members = new ArrayList<>();
 
@@ -0,0 +1,42 @@
+package study.datajpa.loader;
+
+/*
+MemberLoader 실행 옵션
+- workers          : 동시에 insert 하는 워커 수. 워커마다 커넥션을 하나씩 사용하고, 팀 생성에 하나 더 필요하다. (커넥션 풀 크기 - 1 이하)
+- batchSize        : 한 트랜잭션에서 저장할 row 수 (커밋 단위)
+- jdbcBatchSize    : 한 번의 JDBC 배치로 보낼 insert 수 (워커 세션에만 적용, 전역 hibernate.jdbc.batch_size 대신)
+- queueCapacity    : 읽어 둔 배치를 쌓아 두는 큐 크기. 큐가 가득 차면 파일 읽기가 멈춘다. (backpressure)
+- progressInterval : 이 row 수 마다 진행 상황 로그
+ */
+public record LoadOptions(int workers, int batchSize, int jdbcBatchSize, int queueCapacity, long progressInterval) {
+
+    public LoadOptions {
+        if (workers < 1) {
+            throw new IllegalArgumentException("workers는 1 이상이어야 합니다: " + workers);
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize는 1 이상이어야 합니다: " + batchSize);
+        }
+        if (jdbcBatchSize < 1) {
+            throw new IllegalArgumentException("jdbcBatchSize는 1 이상이어야 합니다: " + jdbcBatchSize);
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity는 1 이상이어야 합니다: " + queueCapacity);
+        }
+        if (progressInterval < 1) {
+            throw new IllegalArgumentException("progressInterval은 1 이상이어야 합니다: " + progressInterval);
+        }
+    }
+
+    public static LoadOptions defaults() {
+        return new LoadOptions(4, 1000, 500, 16, 100_000);
+    }
+
+    public LoadOptions withWorkers(int workers) {
+        return new LoadOptions(workers, batchSize, jdbcBatchSize, Math.max(queueCapacity, workers * 4), progressInterval);
+    }
+
+    public LoadOptions withBatchSize(int batchSize) {
+        return new LoadOptions(workers, batchSize, Math.min(jdbcBatchSize, batchSize), queueCapacity, progressInterval);
+    }
+}
@@ -0,0 +1,23 @@
+package study.datajpa.loader;
+
+import java.time.Duration;
+
+/*
+MemberLoader 실행 결과
+- loadedRows  : 커밋된 Member 수
+- failedRows  : 파싱에 실패했거나 저장에 실패한 배치에 속한 row 수 (실패한 배치의 줄 번호는 경고 로그에 남는다.)
+- createdTeams: 파일에만 있고 DB에 없어서 새로 만든 Team 수
+ */
+public record LoadResult(long loadedRows, long failedRows, int createdTeams, Duration elapsed) {
+
+    public double rowsPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : loadedRows * 1_000_000_000.0 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d rows loaded, %d failed, %d teams created, %d ms, %.1f rows/sec",
+                loadedRows, failedRows, createdTeams, elapsed.toMillis(), rowsPerSecond());
+    }
+}
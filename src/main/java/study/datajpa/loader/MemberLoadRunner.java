@@ -0,0 +1,39 @@
+package study.datajpa.loader;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/*
+시작할 때 파일을 읽어서 Member를 저장한다. (datajpa.loader.file 이 있을 때만 등록)
+예: java -jar data-jpa.jar --spring.main.web-application-type=none --datajpa.loader.file=members.csv --datajpa.loader.workers=8
+ */
+@Component
+@ConditionalOnProperty(name = "datajpa.loader.file")
+public class MemberLoadRunner implements ApplicationRunner {
+
+    private final MemberLoader memberLoader;
+    private final Path file;
+    private final LoadOptions options;
+
+    public MemberLoadRunner(MemberLoader memberLoader,
+                            @Value("${datajpa.loader.file}") Path file,
+                            @Value("${datajpa.loader.workers:4}") int workers,
+                            @Value("${datajpa.loader.batch-size:1000}") int batchSize,
+                            @Value("${datajpa.loader.jdbc-batch-size:500}") int jdbcBatchSize,
+                            @Value("${datajpa.loader.queue-capacity:16}") int queueCapacity,
+                            @Value("${datajpa.loader.progress-interval:100000}") long progressInterval) {
+        this.memberLoader = memberLoader;
+        this.file = file;
+        this.options = new LoadOptions(workers, batchSize, jdbcBatchSize, queueCapacity, progressInterval);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        memberLoader.load(file, options);
+    }
+}
@@ -0,0 +1,345 @@
+package study.datajpa.loader;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.support.EntityChangeListener;
+import study.datajpa.repository.support.EntityChangedEvent;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+CSV / NDJSON 파일의 Member를 여러 스레드로 나눠서 저장한다. (테스트, 스테이징 DB 시딩, 마이그레이션)
+
+구조
+- 호출한 스레드가 파일을 한 줄씩 읽어서(NIO, 전체를 메모리에 올리지 않음) batchSize 건씩 묶어 큐에 넣는다.
+- 워커 스레드(workers개)가 큐에서 배치를 꺼내 파싱하고, 배치마다 트랜잭션 하나로 persist 후 커밋한다.
+- 큐 크기가 정해져 있어서 워커가 따라오지 못하면 파일 읽기가 멈춘다. (backpressure, 메모리 사용량 일정)
+
+워커
+- 워커마다 emf.createEntityManager()로 자기 EntityManager를 사용한다. (EntityManager는 스레드 안전하지 않다.)
+  스프링 트랜잭션이 아니라 EntityManager 트랜잭션(RESOURCE_LOCAL)을 직접 사용한다.
+- 세션 설정: JDBC 배치 크기(jdbcBatchSize), 2차 캐시 사용 안 함(CacheMode.IGNORE, 수천만 건을 캐시에 넣지 않도록),
+  커밋할 때만 flush(FlushMode.COMMIT)
+- 커밋 후 clear 하여 영속성 컨텍스트가 커지지 않게 한다. (BatchInserts와 같은 이유)
+- Team은 em.getReference(프록시)로 연결한다. Member.changeTeam이 team.getMembers()에 추가하면서 프록시를 초기화하므로
+  배치(영속성 컨텍스트)마다 팀 하나 당 select 한 번이 나간다. 팀원 컬렉션은 로딩하지 않는다. (Member.changeTeam 참고)
+- row 마다 EntityChangedEvent(카운트 캐시, 조회 결과 캐시 무효화)를 발행하지 않고, 배치를 커밋한 후에 한 번 발행한다.
+
+Team id 캐시
+- 시작할 때 DB의 팀 이름 --> id를 모두 읽어 두고, 모든 워커가 공유한다. (ConcurrentHashMap)
+- 파일에만 있는 팀은 처음 나왔을 때 한 번만 만든다. (이름이 같은 팀이 여러 개라면 id가 가장 작은 팀)
+
+실패 처리
+- 파싱에 실패한 row는 건너뛰고, 저장에 실패한 배치는 롤백 후 건너뛴다. 둘 다 경고 로그(줄 번호)와 LoadResult.failedRows에 남긴다.
+- 커밋된 배치는 그대로 남는다. 실패한 줄만 골라서 다시 실행하자.
+
+성능
+- 처리량은 DB 쓰기 성능에 달려 있다. workers를 커넥션 풀 크기 가까이, batchSize/jdbcBatchSize를 수백 ~ 수천으로 맞추자.
+- Member id 시퀀스는 allocationSize(50)마다 한 번 조회한다. 수천만 건을 넣는다면 allocationSize를 늘리는 것도 고려하자.
+- 트랜잭션 밖에서 호출해야 한다. (배치마다 커밋)
+ */
+@Slf4j
+@Component
+public class MemberLoader {
+
+    private static final Batch END = new Batch(-1, List.of());
+
+    private final EntityManagerFactory emf;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public MemberLoader(EntityManagerFactory emf, ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher) {
+        this.emf = emf;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // 형식은 확장자로 판단한다. (.csv, .ndjson, .jsonl)
+    public LoadResult load(Path file, LoadOptions options) throws IOException {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("배치마다 커밋해야 하므로 트랜잭션 밖에서 호출해야 합니다.");
+        }
+
+        long start = System.nanoTime();
+        TeamIdCache teams = new TeamIdCache(emf);
+        BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(options.queueCapacity());
+        Progress progress = new Progress(options.progressInterval(), start, queue);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(options.workers(),
+                runnable -> new Thread(runnable, "member-loader-" + threadNumber.incrementAndGet()));
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            boolean csv = isCsv(file);
+            MemberRecordParser parser;
+            if (csv) {
+                String header = reader.readLine();
+                if (header == null) {
+                    throw new IllegalArgumentException("빈 파일입니다: " + file);
+                }
+                parser = MemberRecordParser.csv(header);
+            } else {
+                parser = MemberRecordParser.ndjson(objectMapper);
+            }
+
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < options.workers(); i++) {
+                workers.add(executor.submit(() -> {
+                    work(queue, parser, teams, options, progress);
+                    return null;
+                }));
+            }
+
+            read(reader, csv, options.batchSize(), queue, workers);
+            for (int i = 0; i < options.workers(); i++) {
+                put(queue, END, workers);
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("member load가 중단되었습니다: " + file, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("member load 워커가 실패했습니다: " + file, e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        LoadResult result = new LoadResult(progress.loaded.get(), progress.failed.get(), teams.created.get(),
+                Duration.ofNanos(System.nanoTime() - start));
+        log.info("member load {}: {}", file, result);
+        return result;
+    }
+
+    // CSV는 따옴표 안에서 줄이 바뀔 수 있으므로 레코드가 끝날 때까지 다음 줄과 합친다.
+    private void read(BufferedReader reader, boolean csv, int batchSize,
+                      BlockingQueue<Batch> queue, List<Future<?>> workers) throws IOException, InterruptedException {
+        long lineNumber = csv ? 1 : 0;
+        long batchStart = 0;
+        List<String> records = new ArrayList<>(batchSize);
+        StringBuilder pending = null;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (csv) {
+                if (pending != null) {
+                    pending.append('\n').append(line);
+                    if (MemberRecordParser.isIncompleteCsv(pending)) {
+                        continue;
+                    }
+                    line = pending.toString();
+                    pending = null;
+                } else if (MemberRecordParser.isIncompleteCsv(line)) {
+                    pending = new StringBuilder(line);
+                    continue;
+                }
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+
+            if (records.isEmpty()) {
+                batchStart = lineNumber;
+            }
+            records.add(line);
+            if (records.size() == batchSize) {
+                put(queue, new Batch(batchStart, records), workers);
+                records = new ArrayList<>(batchSize);
+            }
+        }
+        if (pending != null) {
+            log.warn("member load: 따옴표가 닫히지 않은 마지막 레코드를 건너뜁니다. (line {})", lineNumber);
+        }
+        if (!records.isEmpty()) {
+            put(queue, new Batch(batchStart, records), workers);
+        }
+    }
+
+    // 큐가 가득 차면 기다린다. 기다리는 동안 워커가 모두 죽었다면 영원히 기다리지 않도록 확인한다.
+    static void put(BlockingQueue<Batch> queue, Batch batch, List<Future<?>> workers) throws InterruptedException {
+        while (!queue.offer(batch, 1, TimeUnit.SECONDS)) {
+            if (workers.stream().allMatch(Future::isDone)) {
+                throw new IllegalStateException("member load 워커가 모두 종료되었습니다.");
+            }
+        }
+    }
+
+    private void work(BlockingQueue<Batch> queue, MemberRecordParser parser, TeamIdCache teams,
+                      LoadOptions options, Progress progress) throws InterruptedException {
+        EntityManager em = emf.createEntityManager();
+        try {
+            Session session = em.unwrap(Session.class);
+            session.setJdbcBatchSize(options.jdbcBatchSize());
+            session.setCacheMode(CacheMode.IGNORE);
+            session.setHibernateFlushMode(FlushMode.COMMIT);
+
+            for (Batch batch = queue.take(); batch != END; batch = queue.take()) {
+                insert(em, batch, parser, teams, progress);
+            }
+        } finally {
+            em.close();
+        }
+    }
+
+    private void insert(EntityManager em, Batch batch, MemberRecordParser parser, TeamIdCache teams, Progress progress) {
+        List<Member> members = new ArrayList<>(batch.records().size());
+        for (int i = 0; i < batch.records().size(); i++) {
+            try {
+                MemberRecord record = parser.parse(batch.records().get(i));
+                Team team = record.teamName() == null ? null : em.getReference(Team.class, teams.idOf(record.teamName()));
+                members.add(new Member(record.username(), record.age(), team));
+            } catch (RuntimeException e) {
+                log.warn("member load: 레코드를 건너뜁니다. (line {} 부터 {}번째): {}", batch.firstLine(), i + 1, e.getMessage());
+                progress.failed(1);
+            }
+        }
+
+        EntityTransaction transaction = em.getTransaction();
+        try {
+            EntityChangeListener.suppress(() -> {
+                transaction.begin();
+                members.forEach(em::persist);
+                transaction.commit();
+                return null;
+            });
+            eventPublisher.publishEvent(new EntityChangedEvent(Member.class));
+            progress.loaded(members.size());
+        } catch (RuntimeException e) {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            log.warn("member load: 배치 저장 실패 (line {} 부터 {}건)", batch.firstLine(), batch.records().size(), e);
+            progress.failed(members.size());
+        } finally {
+            em.clear();
+        }
+    }
+
+    private static boolean isCsv(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return true;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return false;
+        }
+        throw new IllegalArgumentException("지원하지 않는 파일 형식입니다. (.csv, .ndjson, .jsonl): " + file);
+    }
+
+    // 파일에서 읽은 레코드 묶음. firstLine은 첫 레코드의 줄 번호 (로그용)
+    record Batch(long firstLine, List<String> records) {
+    }
+
+    private static final class TeamIdCache {
+
+        private final EntityManagerFactory emf;
+        private final Map<String, Long> ids = new ConcurrentHashMap<>();
+        private final AtomicInteger created = new AtomicInteger();
+
+        TeamIdCache(EntityManagerFactory emf) {
+            this.emf = emf;
+            EntityManager em = emf.createEntityManager();
+            try {
+                em.createQuery("select t.name, min(t.id) from Team t where t.name is not null group by t.name", Object[].class)
+                        .getResultList()
+                        .forEach(row -> ids.put((String) row[0], (Long) row[1]));
+            } finally {
+                em.close();
+            }
+        }
+
+        Long idOf(String name) {
+            Long id = ids.get(name);
+            return id != null ? id : create(name);
+        }
+
+        // 같은 팀을 여러 워커가 동시에 만들지 않도록 한 번에 하나씩 만든다. (팀 수는 Member 수에 비해 아주 적다.)
+        private synchronized Long create(String name) {
+            Long id = ids.get(name);
+            if (id != null) {
+                return id;
+            }
+
+            EntityManager em = emf.createEntityManager();
+            EntityTransaction transaction = em.getTransaction();
+            try {
+                transaction.begin();
+                Team team = new Team(name);
+                em.persist(team);
+                transaction.commit();
+
+                ids.put(name, team.getId());
+                created.incrementAndGet();
+                return team.getId();
+            } catch (RuntimeException e) {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+                throw e;
+            } finally {
+                em.close();
+            }
+        }
+    }
+
+    // 진행 상황: progressInterval 건을 넘길 때마다 한 번 로그를 남긴다. (큐 크기로 병목이 읽기인지 쓰기인지 알 수 있다.)
+    private static final class Progress {
+
+        private final AtomicLong loaded = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final long interval;
+        private final long start;
+        private final BlockingQueue<Batch> queue;
+
+        Progress(long interval, long start, BlockingQueue<Batch> queue) {
+            this.interval = interval;
+            this.start = start;
+            this.queue = queue;
+        }
+
+        void loaded(long rows) {
+            long total = loaded.addAndGet(rows);
+            if (total / interval != (total - rows) / interval) {
+                double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+                log.info("member load progress: {} rows, {} failed, {} rows/sec, queue {}/{}",
+                        total, failed.get(), String.format("%.1f", total / seconds),
+                        queue.size(), queue.size() + queue.remainingCapacity());
+            }
+        }
+
+        void failed(long rows) {
+            failed.addAndGet(rows);
+        }
+    }
+}
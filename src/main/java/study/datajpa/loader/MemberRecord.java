@@ -0,0 +1,7 @@
+package study.datajpa.loader;
+
+// 파일 한 줄(한 건)의 내용. teamName이 없으면 팀 없는 Member로 저장한다.
+// NDJSON: {"username": "member1", "age": 10, "teamName": "teamA"} (그 밖의 속성은 무시)
+// CSV   : 헤더에 username, age, teamName 컬럼이 있어야 한다. (순서 무관, 그 밖의 컬럼은 무시)
+record MemberRecord(String username, int age, String teamName) {
+}
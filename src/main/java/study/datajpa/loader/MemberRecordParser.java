@@ -0,0 +1,99 @@
+package study.datajpa.loader;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/*
+파일 한 건(레코드)을 MemberRecord로 바꾼다.
+- 파일 읽기는 한 스레드(MemberLoader)가 하고, 파싱은 워커 스레드들이 나눠서 한다. 그래서 상태를 갖지 않는다. (CSV 헤더 위치는 생성 시점에 고정)
+- CSV는 MemberExportService.writeCsv 형식(RFC 4180)을 읽을 수 있다. 따옴표 안의 쉼표, 두 번 쓴 따옴표, 줄바꿈 지원
+ */
+abstract class MemberRecordParser {
+
+    abstract MemberRecord parse(String record);
+
+    static MemberRecordParser ndjson(ObjectMapper objectMapper) {
+        return new MemberRecordParser() {
+            @Override
+            MemberRecord parse(String record) {
+                try {
+                    return objectMapper.readValue(record, MemberRecord.class);
+                } catch (JsonProcessingException e) {
+                    throw new IllegalArgumentException("잘못된 JSON 입니다: " + e.getOriginalMessage(), e);
+                }
+            }
+        };
+    }
+
+    static MemberRecordParser csv(String header) {
+        List<String> columns = splitCsv(header).stream().map(c -> c.trim().toLowerCase(Locale.ROOT)).toList();
+        int username = columns.indexOf("username");
+        int age = columns.indexOf("age");
+        int teamName = columns.indexOf("teamname");
+        if (username < 0) {
+            throw new IllegalArgumentException("CSV 헤더에 username 컬럼이 없습니다: " + header);
+        }
+
+        return new MemberRecordParser() {
+            @Override
+            MemberRecord parse(String record) {
+                List<String> fields = splitCsv(record);
+                return new MemberRecord(
+                        field(fields, username),
+                        age < 0 || field(fields, age) == null ? 0 : Integer.parseInt(field(fields, age).trim()),
+                        field(fields, teamName));
+            }
+        };
+    }
+
+    // 빈 값은 null
+    private static String field(List<String> fields, int index) {
+        if (index < 0 || index >= fields.size() || fields.get(index).isEmpty()) {
+            return null;
+        }
+        return fields.get(index);
+    }
+
+    static List<String> splitCsv(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // 따옴표 수가 홀수면 따옴표 안에서 줄이 바뀐 것이므로 다음 줄과 합쳐야 한다.
+    static boolean isIncompleteCsv(CharSequence record) {
+        int quotes = 0;
+        for (int i = 0; i < record.length(); i++) {
+            if (record.charAt(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes % 2 != 0;
+    }
+}
@@ -0,0 +1,142 @@
+package study.datajpa.monitoring;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.CollectionStatistics;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/*
+하이버네이트 통계 액추에이터 엔드포인트: /actuator/hibernate (datajpa.diagnostics.enabled=true 일 때만 등록)
+- hibernate.generate_statistics도 같은 플래그로 켠다. 통계 수집 비용이 있으므로 운영에서는 필요할 때만 켜자.
+- GET    /actuator/hibernate?limit=20 : 전체 요약, 쿼리(JPQL) 별 실행 통계(총 실행 시간 순 상위 limit개), 엔티티/컬렉션 별 로딩 통계, 2차 캐시 적중률
+- DELETE /actuator/hibernate          : 통계 초기화 (측정 구간을 새로 시작할 때)
+- 쿼리 통계는 JPQL 기준이다. 네이티브 쿼리, JdbcTemplate은 포함되지 않는다. (SQL 단위는 datajpa.sql.* 메트릭, SlowQueryLogger 참고)
+ */
+@Component
+@Endpoint(id = "hibernate")
+@ConditionalOnProperty(name = "datajpa.diagnostics.enabled", havingValue = "true")
+public class HibernateStatisticsEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final Statistics statistics;
+
+    public HibernateStatisticsEndpoint(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ReadOperation
+    public Report report(@Nullable Integer limit) {
+        return new Report(
+                statistics.isStatisticsEnabled(),
+                summary(),
+                queries(limit == null ? DEFAULT_LIMIT : limit),
+                Arrays.stream(statistics.getEntityNames()).sorted().map(this::entity).toList(),
+                Arrays.stream(statistics.getCollectionRoleNames()).sorted().map(this::collection).toList(),
+                Arrays.stream(statistics.getSecondLevelCacheRegionNames()).sorted()
+                        .map(this::cacheRegion).filter(Objects::nonNull).toList());
+    }
+
+    @DeleteOperation
+    public void clear() {
+        statistics.clear();
+    }
+
+    private Summary summary() {
+        return new Summary(
+                statistics.getStartTime(),
+                statistics.getSessionOpenCount(),
+                statistics.getTransactionCount(),
+                statistics.getFlushCount(),
+                statistics.getPrepareStatementCount(),
+                statistics.getQueryExecutionCount(),
+                statistics.getQueryExecutionMaxTime(),
+                statistics.getQueryExecutionMaxTimeQueryString(),
+                statistics.getOptimisticFailureCount(),
+                ratio(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount()),
+                ratio(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount()));
+    }
+
+    private List<QueryStats> queries(int limit) {
+        return Arrays.stream(statistics.getQueries())
+                .map(query -> {
+                    QueryStatistics stats = statistics.getQueryStatistics(query);
+                    return new QueryStats(query, stats.getExecutionCount(), stats.getExecutionTotalTime(),
+                            stats.getExecutionAvgTime(), stats.getExecutionMaxTime(), stats.getExecutionRowCount(),
+                            ratio(stats.getCacheHitCount(), stats.getCacheMissCount()));
+                })
+                .sorted(Comparator.comparingLong(QueryStats::totalTimeMs).reversed())
+                .limit(Math.max(limit, 0))
+                .toList();
+    }
+
+    private EntityStats entity(String entityName) {
+        EntityStatistics stats = statistics.getEntityStatistics(entityName);
+        return new EntityStats(entityName, stats.getLoadCount(), stats.getFetchCount(), stats.getInsertCount(),
+                stats.getUpdateCount(), stats.getDeleteCount(), stats.getOptimisticFailureCount(),
+                ratio(stats.getCacheHitCount(), stats.getCacheMissCount()));
+    }
+
+    // fetchCount가 loadCount에 가깝다면 컬렉션을 하나씩 지연 로딩하고 있다는 뜻이다. (N + 1)
+    private CollectionStats collection(String role) {
+        CollectionStatistics stats = statistics.getCollectionStatistics(role);
+        return new CollectionStats(role, stats.getLoadCount(), stats.getFetchCount(), stats.getUpdateCount(),
+                stats.getRecreateCount(), stats.getRemoveCount(),
+                ratio(stats.getCacheHitCount(), stats.getCacheMissCount()));
+    }
+
+    private CacheRegionStats cacheRegion(String region) {
+        CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+        if (stats == null) {
+            return null;
+        }
+        return new CacheRegionStats(region, stats.getHitCount(), stats.getMissCount(), stats.getPutCount(),
+                ratio(stats.getHitCount(), stats.getMissCount()));
+    }
+
+    // 조회가 한 번도 없었다면 null
+    private static Double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? null : (double) hits / total;
+    }
+
+    public record Report(boolean statisticsEnabled, Summary summary, List<QueryStats> queries,
+                         List<EntityStats> entities, List<CollectionStats> collections,
+                         List<CacheRegionStats> secondLevelCache) {
+    }
+
+    public record Summary(long startTime, long sessionOpenCount, long transactionCount, long flushCount,
+                          long prepareStatementCount, long queryExecutionCount, long queryExecutionMaxTimeMs,
+                          String slowestQuery, long optimisticFailureCount,
+                          Double secondLevelCacheHitRatio, Double queryCacheHitRatio) {
+    }
+
+    public record QueryStats(String query, long executionCount, long totalTimeMs, long avgTimeMs, long maxTimeMs,
+                             long rowCount, Double cacheHitRatio) {
+    }
+
+    public record EntityStats(String entity, long loadCount, long fetchCount, long insertCount, long updateCount,
+                              long deleteCount, long optimisticFailureCount, Double cacheHitRatio) {
+    }
+
+    public record CollectionStats(String role, long loadCount, long fetchCount, long updateCount,
+                                  long recreateCount, long removeCount, Double cacheHitRatio) {
+    }
+
+    public record CacheRegionStats(String region, long hitCount, long missCount, long putCount, Double hitRatio) {
+    }
+}
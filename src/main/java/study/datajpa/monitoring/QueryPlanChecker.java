@@ -0,0 +1,143 @@
+package study.datajpa.monitoring;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+import study.datajpa.repository.support.RepositoryQueryInvoker;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+시작 시점 실행 계획 점검 (datajpa.explain-check.enabled=true 일 때만 등록)
+- MemberRepository, TeamRepository의 조회 메서드(@Query, 메서드 이름 쿼리, 상속한 조회 메서드)를 더미 파라미터로 한 번씩 실행한다. (RepositoryQueryInvoker)
+  - 실행은 롤백 전용 트랜잭션 안에서 하고, @Modifying 메서드는 건너뛴다.
+  - SQL은 실행한 스레드의 ThreadLocal로 모은다. 다른 스레드에서 실행되는 SQL은 점검하지 못한다.
+    (@Async/Future 반환 메서드는 RepositoryQueryInvoker가 제외하고, InQueryExecutor의 병렬 청크 조회처럼
+     메서드 안에서 다른 스레드로 넘긴 쿼리도 잡히지 않는다. 이런 쿼리는 같은 조건의 동기 메서드로 점검하자.)
+- 실행된 SQL을 p6spy로 가로채서(바인딩 값 포함) H2 EXPLAIN을 실행하고, 실행 계획에 tableScan이 있으면 경고 로그를 남긴다.
+  - where 절이 없는 쿼리(findAll, findUsernameList 등)의 풀 스캔은 당연하므로 info로만 남긴다.
+- fail-on-full-scan=true 면 where 절이 있는데 풀 스캔하는 쿼리가 있을 때 애플리케이션 시작을 실패시킨다. (CI 용도)
+- EXPLAIN 출력 형식이 H2 전용이므로 다른 DB에서는 결과를 믿지 말자.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "datajpa.explain-check.enabled", havingValue = "true")
+public class QueryPlanChecker extends SimpleJdbcEventListener {
+
+    // H2 실행 계획 예: /* PUBLIC.MEMBER.tableScan */
+    private static final Pattern TABLE_SCAN = Pattern.compile("/\\* ([\\w.]+)\\.tableScan");
+    private static final Pattern WHERE = Pattern.compile("\\bwhere\\b", Pattern.CASE_INSENSITIVE);
+
+    private final ThreadLocal<List<String>> captured = new ThreadLocal<>();
+
+    private final Map<Class<?>, Object> repositories;
+    private final TransactionTemplate rollbackTransaction;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean failOnFullScan;
+
+    public QueryPlanChecker(MemberRepository memberRepository,
+                            TeamRepository teamRepository,
+                            PlatformTransactionManager transactionManager,
+                            JdbcTemplate jdbcTemplate,
+                            @Value("${datajpa.explain-check.fail-on-full-scan:false}") boolean failOnFullScan) {
+        this.repositories = Map.of(MemberRepository.class, memberRepository, TeamRepository.class, teamRepository);
+        this.rollbackTransaction = new TransactionTemplate(transactionManager);
+        this.jdbcTemplate = jdbcTemplate;
+        this.failOnFullScan = failOnFullScan;
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        List<String> statements = captured.get();
+        if (statements != null) {
+            statements.add(statementInformation.getSqlWithValues());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void check() {
+        List<String> fullScans = new ArrayList<>();
+        repositories.forEach((repositoryInterface, repository) -> {
+            for (Method method : RepositoryQueryInvoker.queryMethods(repositoryInterface)) {
+                String name = repositoryInterface.getSimpleName() + "." + method.getName();
+                for (String sql : captureSql(repository, method)) {
+                    if (isFullScan(name, sql)) {
+                        fullScans.add(name);
+                    }
+                }
+            }
+        });
+        report(fullScans);
+    }
+
+    // where 절이 있는데 풀 스캔하는 SQL이면 경고 로그를 남기고 true
+    boolean isFullScan(String name, String sql) {
+        String table = scannedTable(sql);
+        if (table == null) {
+            return false;
+        }
+        if (WHERE.matcher(sql).find()) {
+            log.warn("full scan: {} -> {} : {}", name, table, sql);
+            return true;
+        }
+        log.info("full scan (where 절 없음): {} -> {}", name, table);
+        return false;
+    }
+
+    void report(List<String> fullScans) {
+        log.info("explain check finished: {} full scan(s) {}", fullScans.size(), fullScans);
+        if (failOnFullScan && !fullScans.isEmpty()) {
+            throw new IllegalStateException("풀 스캔 쿼리가 있습니다: " + fullScans);
+        }
+    }
+
+    private List<String> captureSql(Object repository, Method method) {
+        Class<?> domainType = repository instanceof TeamRepository ? Team.class : Member.class;
+        List<String> statements = new ArrayList<>();
+        rollbackTransaction.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            captured.set(statements);
+            try {
+                if (!RepositoryQueryInvoker.invoke(repository, method, domainType)) {
+                    log.debug("explain check skipped (지원하지 않는 파라미터): {}", method);
+                }
+            } catch (InvocationTargetException e) {
+                // 더미 파라미터라 실패할 수 있다. 그 전에 실행된 SQL은 그대로 점검한다.
+                log.debug("explain check invocation failed: {}", method, e);
+            } finally {
+                captured.remove();
+            }
+        });
+        return statements;
+    }
+
+    private String scannedTable(String sql) {
+        try {
+            String plan = String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class));
+            Matcher matcher = TABLE_SCAN.matcher(plan);
+            return matcher.find() ? matcher.group(1) : null;
+        } catch (RuntimeException e) {
+            log.debug("explain failed: {}", sql, e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package study.datajpa.monitoring;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/*
+현재 스레드에서 실행 중인 리포지토리 메서드 (예: "MemberRepository.findPageByAge")
+- RepositoryMetricsAspect가 리포지토리 호출 시작/종료 시점에 push/pop 한다.
+- 리포지토리 안에서 다른 리포지토리를 호출할 수 있으므로 스택으로 관리한다.
+- SQL 통계, 슬로우 쿼리 로그에서 "어느 리포지토리 메서드가 실행한 SQL인지" 표시할 때 사용한다.
+ */
+public final class RepositoryMethodContext {
+
+    public static final String NONE = "none";
+
+    private static final ThreadLocal<Deque<String>> METHODS = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private RepositoryMethodContext() {
+    }
+
+    public static String current() {
+        String method = METHODS.get().peek();
+        return method == null ? NONE : method;
+    }
+
+    static void push(String method) {
+        METHODS.get().push(method);
+    }
+
+    static void pop() {
+        METHODS.get().poll();
+    }
+}
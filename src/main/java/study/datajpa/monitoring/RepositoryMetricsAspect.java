@@ -0,0 +1,84 @@
+package study.datajpa.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/*
+리포지토리 메서드 별 SQL 메트릭
+- 스프링 데이터 JPA 리포지토리(Repository 하위 인터페이스)와 순수 JPA 리포지토리(*JpaRepository)의 모든 메서드를 감싼다.
+- 메서드 실행 동안 실행된 SQL 수, row 수, JDBC 시간을 메트릭으로 남긴다. (tag: method = "MemberRepository.findPageByAge")
+  - datajpa.repository.invocation       (Timer) 메서드 실행 시간
+  - datajpa.repository.sql.statements   (DistributionSummary)
+  - datajpa.repository.sql.rows         (DistributionSummary)
+  - datajpa.repository.sql.time         (Timer) 메서드 안에서 JDBC에 쓴 시간
+ */
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    public RepositoryMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))" +
+            " || execution(public * study.datajpa.repository.*JpaRepository.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        String method = repositoryName(joinPoint.getTarget()) + "." + joinPoint.getSignature().getName();
+        SqlExecutionStats.Snapshot before = SqlExecutionStats.current().snapshot();
+        long start = System.nanoTime();
+
+        RepositoryMethodContext.push(method);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            RepositoryMethodContext.pop();
+            record(method, System.nanoTime() - start, SqlExecutionStats.current().snapshot().since(before));
+        }
+    }
+
+    private void record(String method, long elapsedNanos, SqlExecutionStats.Snapshot sql) {
+        Timer.builder("datajpa.repository.invocation")
+                .tag("method", method)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("datajpa.repository.sql.statements")
+                .tag("method", method)
+                .register(meterRegistry)
+                .record(sql.statements());
+        DistributionSummary.builder("datajpa.repository.sql.rows")
+                .tag("method", method)
+                .register(meterRegistry)
+                .record(sql.rows());
+        Timer.builder("datajpa.repository.sql.time")
+                .tag("method", method)
+                .register(meterRegistry)
+                .record(sql.jdbcNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    // 스프링 데이터 JPA 리포지토리는 프록시이므로 구현한 리포지토리 인터페이스 이름을 사용한다.
+    private String repositoryName(Object target) {
+        return repositoryNames.computeIfAbsent(target.getClass(), type -> {
+            for (Class<?> candidate : ClassUtils.getAllInterfacesForClassAsSet(type)) {
+                if (Repository.class.isAssignableFrom(candidate) && !candidate.getName().startsWith("org.springframework.")) {
+                    return candidate.getSimpleName();
+                }
+            }
+            return ClassUtils.getUserClass(type).getSimpleName();
+        });
+    }
+}
@@ -0,0 +1,61 @@
+package study.datajpa.monitoring;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.time.Duration;
+
+/*
+슬로우 쿼리 로그 (p6spy JDBC 이벤트 리스너)
+- 실행 시간이 datajpa.slow-query.threshold 이상인 SQL을 바인딩 값과 함께, 실행한 리포지토리 메서드(RepositoryMethodContext)와 같이 남긴다.
+  예: slow query 812ms [MemberRepository.findPageByAge] select ... where member0_.age=10 ...
+- org.hibernate.SQL debug 로그는 모든 SQL을 남기므로 운영에서는 끄고 이 로그만 남기자.
+- 로거 이름이 datajpa.slow-query 이므로 별도 파일로 분리할 수 있다.
+- 바인딩 값이 그대로 남으므로 개인정보가 들어가는 컬럼이 있다면 주의하자.
+- 메트릭: datajpa.sql.slow (Counter, 리포지토리 메서드 별)
+ */
+@Slf4j(topic = "datajpa.slow-query")
+@Component
+public class SlowQueryLogger extends SimpleJdbcEventListener {
+
+    private final MeterRegistry meterRegistry;
+    private final long thresholdNanos;
+    private final int maxSqlLength;
+
+    public SlowQueryLogger(MeterRegistry meterRegistry,
+                           @Value("${datajpa.slow-query.threshold:500ms}") Duration threshold,
+                           @Value("${datajpa.slow-query.max-sql-length:2000}") int maxSqlLength) {
+        this.meterRegistry = meterRegistry;
+        this.thresholdNanos = threshold.toNanos();
+        this.maxSqlLength = maxSqlLength;
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        if (timeElapsedNanos < thresholdNanos) {
+            return;
+        }
+        String method = RepositoryMethodContext.current();
+        Counter.builder("datajpa.sql.slow")
+                .description("JDBC statements slower than datajpa.slow-query.threshold")
+                .tag("method", method)
+                .register(meterRegistry)
+                .increment();
+        log.warn("slow query {}ms [{}] {}", Duration.ofNanos(timeElapsedNanos).toMillis(), method,
+                abbreviate(statementInformation.getSqlWithValues()));
+    }
+
+    // 큰 in 절, 배치 insert 등은 SQL이 매우 길어질 수 있다.
+    private String abbreviate(String sql) {
+        if (sql == null || sql.length() <= maxSqlLength) {
+            return sql;
+        }
+        return sql.substring(0, maxSqlLength) + "... (" + sql.length() + " chars)";
+    }
+}
@@ -0,0 +1,68 @@
+package study.datajpa.monitoring;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/*
+스레드 별 SQL 실행 통계
+- SqlMetricsListener(p6spy)가 SQL이 실행될 때마다 누적한다.
+- HTTP 요청, 리포지토리 메서드 단위 통계는 시작/종료 시점의 snapshot 차이로 구한다.
+- 같은 모양의 SQL 반복 횟수(N + 1 탐지용)는 HTTP 요청 범위에서만 센다. (trackShapes ~ untrackShapes)
+ */
+public final class SqlExecutionStats {
+
+    private static final ThreadLocal<SqlExecutionStats> CURRENT = ThreadLocal.withInitial(SqlExecutionStats::new);
+
+    // in (?, ?, ?) 처럼 파라미터 수만 다른 SQL은 같은 모양으로 본다.
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+
+    private long statements;
+    private long rows;
+    private long jdbcNanos;
+    private Map<String, Integer> shapes;
+
+    private SqlExecutionStats() {
+    }
+
+    public static SqlExecutionStats current() {
+        return CURRENT.get();
+    }
+
+    void recordStatement(String sql, long elapsedNanos) {
+        statements++;
+        jdbcNanos += elapsedNanos;
+        if (shapes != null && sql != null) {
+            shapes.merge(shapeOf(sql), 1, Integer::sum);
+        }
+    }
+
+    void recordRow() {
+        rows++;
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(statements, rows, jdbcNanos);
+    }
+
+    void trackShapes() {
+        shapes = new HashMap<>();
+    }
+
+    Map<String, Integer> untrackShapes() {
+        Map<String, Integer> tracked = shapes == null ? Map.of() : shapes;
+        shapes = null;
+        return tracked;
+    }
+
+    static String shapeOf(String sql) {
+        return IN_LIST.matcher(sql.strip()).replaceAll("(?)");
+    }
+
+    public record Snapshot(long statements, long rows, long jdbcNanos) {
+
+        public Snapshot since(Snapshot before) {
+            return new Snapshot(statements - before.statements, rows - before.rows, jdbcNanos - before.jdbcNanos);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package study.datajpa.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+HTTP 요청 별 SQL 메트릭 + N + 1 탐지
+- 요청 하나를 처리하는 동안 실행된 SQL 수, row 수, JDBC 시간을 메트릭으로 남긴다. (tag: uri = 핸들러 매핑 패턴)
+  - datajpa.http.sql.statements (DistributionSummary)
+  - datajpa.http.sql.rows       (DistributionSummary)
+  - datajpa.http.sql.time       (Timer)
+- 같은 모양의 SQL이 한 요청에서 n-plus-one-threshold 번 넘게 실행되면 N + 1 의심으로 경고 로그를 남기고
+  datajpa.sql.n_plus_one 카운터를 올린다.
+- 디버그 SQL 로그를 켜지 않고도 운영 환경에서 문제가 되는 요청을 찾을 수 있다.
+ */
+@Slf4j
+@Component
+public class SqlMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final int nPlusOneThreshold;
+
+    public SqlMetricsFilter(MeterRegistry meterRegistry,
+                            @Value("${datajpa.sql-metrics.n-plus-one-threshold:10}") int nPlusOneThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlExecutionStats stats = SqlExecutionStats.current();
+        SqlExecutionStats.Snapshot before = stats.snapshot();
+        stats.trackShapes();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Map<String, Integer> shapes = stats.untrackShapes();
+            record(uriOf(request), stats.snapshot().since(before), shapes);
+        }
+    }
+
+    private void record(String uri, SqlExecutionStats.Snapshot sql, Map<String, Integer> shapes) {
+        DistributionSummary.builder("datajpa.http.sql.statements")
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(sql.statements());
+        DistributionSummary.builder("datajpa.http.sql.rows")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(sql.rows());
+        Timer.builder("datajpa.http.sql.time")
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(sql.jdbcNanos(), TimeUnit.NANOSECONDS);
+
+        shapes.forEach((shape, count) -> {
+            if (count > nPlusOneThreshold) {
+                log.warn("N + 1 의심: {} 요청에서 같은 SQL이 {}번 실행되었습니다. sql={}", uri, count, shape);
+                Counter.builder("datajpa.sql.n_plus_one")
+                        .tag("uri", uri)
+                        .register(meterRegistry)
+                        .increment();
+            }
+        });
+    }
+
+    // 메트릭 tag가 무한히 늘어나지 않도록 실제 URI(/members/1) 대신 매핑 패턴(/members/{id})을 사용한다.
+    private static String uriOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? "UNKNOWN" : pattern.toString();
+    }
+}
@@ -0,0 +1,48 @@
+package study.datajpa.monitoring;
+
+import com.p6spy.engine.common.ResultSetInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/*
+p6spy JDBC 이벤트 리스너
+- p6spy-spring-boot-starter는 JdbcEventListener 타입의 빈을 자동으로 등록해 준다.
+- SQL 로그를 남기는 것과 별개로 실행된 SQL 수, 조회한 row 수, JDBC 실행 시간을 센다.
+- 메트릭: datajpa.sql.statement (Timer, 리포지토리 메서드 별)
+ */
+@Component
+public class SqlMetricsListener extends SimpleJdbcEventListener {
+
+    private final MeterRegistry meterRegistry;
+
+    public SqlMetricsListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        SqlExecutionStats.current().recordStatement(statementInformation.getSql(), timeElapsedNanos);
+
+        Timer.builder("datajpa.sql.statement")
+                .description("JDBC statement execution time")
+                .tag("method", RepositoryMethodContext.current())
+                .tag("outcome", e == null ? "success" : "error")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(timeElapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onAfterResultSetNext(ResultSetInformation resultSetInformation, long timeElapsedNanos,
+                                     boolean hasNext, SQLException e) {
+        if (hasNext) {
+            SqlExecutionStats.current().recordRow();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package study.datajpa.repository;
+
+import study.datajpa.entity.Member;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+/*
+키셋(seek) 페이징용 커서
+- 마지막으로 조회한 Member의 (username, id)를 기억한다.
+- 외부(화면, API)에는 encode() 결과 문자열만 노출하고, 내부 값은 리포지토리 패키지에서만 사용한다. (opaque cursor)
+- 정렬 기준은 username desc, id desc 이다. id는 username이 같은 Member끼리의 순서를 결정하는 tie-breaker 역할.
+- username이 null인 Member는 키셋 비교(<, =)에서 빠지므로 username은 null이 아니라고 가정한다.
+ */
+public final class KeysetCursor {
+
+    private final String username;
+    private final Long id;
+
+    private KeysetCursor(String username, Long id) {
+        this.username = Objects.requireNonNull(username, "username");
+        this.id = Objects.requireNonNull(id, "id");
+    }
+
+    public static KeysetCursor of(Member member) {
+        return new KeysetCursor(member.getUsername(), member.getId());
+    }
+
+    // 형식: Base64URL("{id}:{username}") --> username에 ':'가 있어도 첫 번째 ':' 기준으로 나누므로 문제 없다.
+    public String encode() {
+        String raw = id + ":" + username;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("잘못된 커서입니다: " + token);
+            }
+            return new KeysetCursor(raw.substring(separator + 1), Long.valueOf(raw.substring(0, separator)));
+        } catch (IllegalArgumentException e) { // Base64 디코딩 실패, NumberFormatException 포함
+            throw new IllegalArgumentException("잘못된 커서입니다: " + token, e);
+        }
+    }
+
+    String getUsername() {
+        return username;
+    }
+
+    Long getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof KeysetCursor that)) return false;
+        return username.equals(that.username) && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(username, id);
+    }
+
+    @Override
+    public String toString() {
+        return encode();
+    }
+}
@@ -0,0 +1,55 @@
+package study.datajpa.repository;
+
+import java.util.List;
+import java.util.function.Function;
+
+/*
+키셋 페이징 결과
+- Slice와 마찬가지로 총 요소 갯수(count 쿼리)는 구하지 않는다.
+- 다음 페이지 존재 여부는 size + 1개를 조회해서 판단한다.
+- 다음 페이지를 요청할 때는 nextCursor를 그대로 넘기면 된다. (마지막 페이지라면 null)
+ */
+public class KeysetSlice<T> {
+
+    private final List<T> content;
+    private final KeysetCursor nextCursor;
+
+    public KeysetSlice(List<T> content, KeysetCursor nextCursor) {
+        this.content = List.copyOf(content);
+        this.nextCursor = nextCursor;
+    }
+
+    // size + 1개 조회한 결과를 받아서 size 만큼 자르고, 남는 요소가 있었다면 마지막 요소로 다음 커서를 만든다.
+    static <T> KeysetSlice<T> of(List<T> fetched, int size, Function<T, KeysetCursor> cursorOf) {
+        if (fetched.size() <= size) {
+            return new KeysetSlice<>(fetched, null);
+        }
+        List<T> content = fetched.subList(0, size);
+        return new KeysetSlice<>(content, cursorOf.apply(content.get(size - 1)));
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public KeysetCursor getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    // Slice.map 처럼 DTO 변환에 사용한다. 커서는 그대로 유지된다.
+    public <U> KeysetSlice<U> map(Function<? super T, ? extends U> converter) {
+        return new KeysetSlice<>(content.stream().<U>map(converter).toList(), nextCursor);
+    }
+
+    @Override
+    public String toString() {
+        return "KeysetSlice{" +
+                "content=" + content +
+                ", nextCursor=" + nextCursor +
+                '}';
+    }
+}
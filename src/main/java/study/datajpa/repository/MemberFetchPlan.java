@@ -0,0 +1,31 @@
+package study.datajpa.repository;
+
+import org.hibernate.jpa.QueryHints;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+
+/*
+Member 조회 시 연관 엔티티를 어떻게 가져올지 실행 시점에 고르는 fetch plan
+- DEFAULT : 엔티티 매핑 그대로 (team은 지연 로딩, 사용 시점에 default_batch_fetch_size 만큼 in 절로 조회)
+- TEAM    : team을 fetch join 하여 한 번의 쿼리로 가져온다. (엔티티 그래프 "Member.team")
+ */
+public enum MemberFetchPlan {
+
+    DEFAULT(null),
+    TEAM("Member.team");
+
+    private final String entityGraphName;
+
+    MemberFetchPlan(String entityGraphName) {
+        this.entityGraphName = entityGraphName;
+    }
+
+    // fetchgraph: 그래프에 있는 속성은 EAGER로, 나머지는 매핑 설정(LAZY 등)을 따른다.
+    <T> TypedQuery<T> applyTo(TypedQuery<T> query, EntityManager em) {
+        if (entityGraphName != null) {
+            query.setHint(QueryHints.HINT_FETCHGRAPH, em.getEntityGraph(entityGraphName));
+        }
+        return query;
+    }
+}
@@ -1,24 +1,59 @@
 package study.datajpa.repository;
 
+import lombok.RequiredArgsConstructor;
+import org.hibernate.FlushMode;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
+import study.datajpa.repository.support.BatchInsertResult;
+import study.datajpa.repository.support.BatchInserts;
+import study.datajpa.repository.support.EntityChangedEvent;
+import study.datajpa.repository.support.QueryCacheConfig;
+import study.datajpa.repository.support.StreamingQueries;
 
 import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
 import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
+@RequiredArgsConstructor
 public class MemberJpaRepository {
 
     @PersistenceContext
     private EntityManager em;
 
+    private final ApplicationEventPublisher eventPublisher;
+
     public Member save(Member member) {
         em.persist(member);
         return member;
     }
 
+    // 대량 insert: batchSize 마다 flush(JDBC 배치) + clear(영속성 컨텍스트 비우기)
+    // 호출 전에 영속성 컨텍스트에 있던 엔티티도 준영속 상태가 되므로 주의하자. (BatchInserts 참고)
+    @Transactional
+    public BatchInsertResult saveAllBatched(Iterable<Member> members, int batchSize) {
+        return BatchInserts.persistAll(em, eventPublisher, members, batchSize);
+    }
+
+    // 비관적 락 조회 (MemberRepository.findWithLockById 참고)
+    // 락 대기 시간을 호출하는 쪽에서 정한다. 트랜잭션 안에서 호출해야 한다.
+    public Optional<Member> findByIdForUpdate(Long id, Duration lockTimeout) {
+        return Optional.ofNullable(em.find(Member.class, id, LockModeType.PESSIMISTIC_WRITE,
+                Map.of(AvailableSettings.JPA_LOCK_TIMEOUT, lockTimeout.toMillis())));
+    }
+
     public void delete(Member member) {
         // 삭제 쿼리를 쓰기 지연 SQL 저장소에 등록
         // 엔티티를 영속성 컨텍스트에서 제거
@@ -31,11 +66,50 @@ public class MemberJpaRepository {
                 .getResultList();
     }
 
+    // 전체 Member를 스트림으로 조회 (대용량 export 용도)
+    // findAll은 전체 결과를 List로 만들고 영속성 컨텍스트에도 모두 올리기 때문에 데이터가 많으면 OOM이 발생한다.
+    // - fetchSize: JDBC 드라이버가 DB에서 한 번에 가져올 row 수
+    // - detachInterval: 몇 개 마다 이미 처리한 엔티티를 영속성 컨텍스트에서 내보낼지 (StreamingQueries 참고)
+    // 트랜잭션 안에서 사용하고, 다 쓰면 반드시 close 하자.
+    public Stream<Member> streamAll(int fetchSize, int detachInterval) {
+        return StreamingQueries.streamAll(em, Member.class, fetchSize, detachInterval);
+    }
+
+    // DTO로 바로 조회하면 영속성 컨텍스트에 올라가지 않으므로 clear가 필요 없다.
+    public Stream<MemberDto> streamAllMemberDto(int fetchSize) {
+        return em.createQuery("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name)" +
+                        " from Member m left join m.team t", MemberDto.class)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    // 읽기 전용 조회: 변경 감지용 스냅샷을 만들지 않고, 이 쿼리 전에 자동 flush도 하지 않는다.
+    // 조회한 엔티티를 수정해도 DB에 반영되지 않는다. (ReadOnlyQuery 참고)
+    public List<Member> findAllReadOnly() {
+        return readOnly(em.createQuery("select m from Member m", Member.class))
+                .getResultList();
+    }
+
+    public List<Member> findByPageReadOnly(int age, int offset, int limit) {
+        return readOnly(em.createQuery("select m from Member m where m.age = :age order by m.username desc", Member.class))
+                .setParameter("age", age)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private static <T> TypedQuery<T> readOnly(TypedQuery<T> query) {
+        return query
+                .setHint(QueryHints.HINT_READONLY, true)
+                .setHint(QueryHints.HINT_FLUSH_MODE, FlushMode.MANUAL);
+    }
+
     public Optional<Member> findById(Long id) {
         Member member = em.find(Member.class, id);
         return Optional.ofNullable(member);
     }
 
+    @Cacheable(cacheNames = QueryCacheConfig.MEMBER_COUNTS, key = "'all'")
     public long count() {
         return em.createQuery("select count(m) from Member m", Long.class)
                 .getSingleResult();
@@ -67,6 +141,14 @@ public class MemberJpaRepository {
                 .getResultList();
     }
 
+    // 키셋(seek) 페이징: 마지막으로 본 (username, id) 다음부터 limit 만큼 조회
+    // findByPage는 offset 만큼 읽고 버리지만, 키셋 페이징은 정렬 조건으로 바로 시작 위치를 찾는다.
+    // cursor가 null이면 첫 페이지
+    public KeysetSlice<Member> findByKeyset(int age, KeysetCursor cursor, int limit) {
+        return MemberKeysetQuery.findByAge(em, age, cursor, limit);
+    }
+
+    @Cacheable(cacheNames = QueryCacheConfig.MEMBER_COUNTS, key = "'age:' + #age")
     public long totalCount(int age) {
         return em.createQuery("select count(m) from Member m where m.age = :age", Long.class)
                 .setParameter("age", age)
@@ -74,10 +156,14 @@ public class MemberJpaRepository {
     }
 
     public int bulkAgePlus(int age) {
-        int resultCount = em.createQuery("update Member m set m.age = m.age + 1 where m.age >= : age")
+        int resultCount = em.createQuery("update versioned Member m set m.age = m.age + 1, m.lastModifiedDate = current_timestamp" +
+                        " where m.age >= : age")
                 .setParameter("age", age)
                 .executeUpdate();
 
+        // 벌크 연산은 엔티티 리스너를 거치지 않으므로 직접 알려준다. (카운트 캐시 등 무효화)
+        eventPublisher.publishEvent(new EntityChangedEvent(Member.class));
+
         return resultCount;
     }
 }
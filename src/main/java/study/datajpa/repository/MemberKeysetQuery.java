@@ -0,0 +1,42 @@
+package study.datajpa.repository;
+
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+
+/*
+age 조건 Member 키셋 페이징 쿼리 (MemberRepositoryImpl.findKeysetByAge, MemberJpaRepository.findByKeyset)
+- 정렬(username desc, id desc)과 커서 조건을 한 곳에서 만든다. 정렬을 바꾸면 커서 조건도 같이 바꿔야 하기 때문
+- 다음 페이지 존재 여부 확인용으로 size + 1개를 조회한다.
+ */
+final class MemberKeysetQuery {
+
+    private static final String SELECT = "select m from Member m where m.age = :age";
+    // (username, id) < (cursor.username, cursor.id) 를 풀어서 쓴 조건
+    private static final String AFTER_CURSOR = " and (m.username < :username or (m.username = :username and m.id < :id))";
+    private static final String ORDER_BY = " order by m.username desc, m.id desc";
+
+    private MemberKeysetQuery() {
+    }
+
+    static KeysetSlice<Member> findByAge(EntityManager em, int age, KeysetCursor cursor, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("size는 1 이상이어야 합니다: " + size);
+        }
+
+        TypedQuery<Member> query;
+        if (cursor == null) {
+            query = em.createQuery(SELECT + ORDER_BY, Member.class);
+        } else {
+            query = em.createQuery(SELECT + AFTER_CURSOR + ORDER_BY, Member.class)
+                    .setParameter("username", cursor.getUsername())
+                    .setParameter("id", cursor.getId());
+        }
+
+        return KeysetSlice.of(query
+                .setParameter("age", age)
+                .setMaxResults(size + 1)
+                .getResultList(), size, KeysetCursor::of);
+    }
+}
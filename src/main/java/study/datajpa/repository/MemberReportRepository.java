@@ -0,0 +1,33 @@
+package study.datajpa.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.repository.Repository;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.support.ReadOnlyQuery;
+
+import java.util.List;
+
+/*
+리포트/화면 출력 전용 Member 리포지토리
+- 모든 메서드가 읽기 전용으로 동작한다. (ReadOnlyQuery 참고)
+- 조회한 Member를 수정해도 DB에 반영되지 않는다. 수정이 필요하면 MemberRepository를 사용하자.
+- JpaRepository가 아닌 Repository를 상속해서 save, delete 같은 쓰기 메서드를 노출하지 않는다.
+ */
+@ReadOnlyQuery
+public interface MemberReportRepository extends Repository<Member, Long> {
+
+    @ReadOnlyQuery
+    List<Member> findAllBy();
+
+    @ReadOnlyQuery
+    List<Member> findByAge(int age);
+
+    @ReadOnlyQuery
+    Page<Member> findPageByAge(int age, Pageable pageable);
+
+    @ReadOnlyQuery
+    @EntityGraph("Member.team")
+    List<Member> findWithTeamByAge(int age);
+}
@@ -1,20 +1,31 @@
 package study.datajpa.repository;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
+import study.datajpa.repository.support.AsyncQueryConfig;
+import study.datajpa.repository.support.QueryCacheConfig;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
-public interface MemberRepository extends JpaRepository<Member, Long> {
+public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom {
 
     // 메소드 이름으로 쿼리 생성
     // 간단한 쿼리를 생성하는 경우라면 간간히 쓰인다.
@@ -25,6 +36,9 @@ public interface MemberRepository extends JpaRepository<Member, Long> {
     List<Member> findByUsernameAndAgeGreaterThan(String username, int age);
 
     // 메소드 이름으로 쿼리 생성
+    // 엔티티 결과이므로 스프링 캐시 대신 하이버네이트 쿼리 캐시를 사용한다. (QueryCacheConfig 참고)
+    // 쿼리 캐시는 id 목록만 저장하고 엔티티는 2차 캐시에서 가져온다. member 테이블이 바뀌면 하이버네이트가 알아서 무효화한다.
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<Member> findTop3By();
 
     // 실무에서 NamedQuery는 거의 사용되지 않는다.
@@ -39,15 +53,23 @@ public interface MemberRepository extends JpaRepository<Member, Long> {
     @Query("select m from Member m where m.username = :username and m.age = :age")
     List<Member> findUser(@Param("username") String username, @Param("age") int age);
 
+    @Cacheable(QueryCacheConfig.MEMBER_USERNAMES)
     @Query("select m.username from Member m")
     List<String> findUsernameList();
 
     // QueryDSL에서는 더 편한 방법이 있다고 한다.
+    @Cacheable(QueryCacheConfig.MEMBER_DTOS)
     @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m join m.team t")
     List<MemberDto> findMemberDto();
 
+    // 위 findMemberDto를 인터페이스 Projection으로 바꾼 것. select 절 alias로 getter와 매핑한다.
+    @Query("select m.id as id, m.username as username, t.name as teamName from Member m join m.team t")
+    List<MemberView> findMemberViews();
+
     // 쿼리에 in 절을 넣어준다.
     // 현업에서 많이 쓰인다고 한다.
+    // 파라미터 수가 바뀌어도 SQL이 2의 거듭제곱 개수로만 달라지도록 in_clause_parameter_padding을 켜 두었다. (application.yml)
+    // 키가 수천 개 이상이라면 MemberRepositoryCustom.findByNames(names, InQueryOptions)를 사용하자.
     @Query("select m from Member m where m.username in :names")
     List<Member> findByNames(@Param("names") Collection<String> names);
 
@@ -106,6 +128,7 @@ public interface MemberRepository extends JpaRepository<Member, Long> {
     // 리턴 타입이 Page일 경우, 2개의 쿼리 발생 : 조건에 맞는 Member page를 가져오는 쿼리 + 조건에 맞는 총 Member를 구하는 쿼리
     // 총 요소 갯수를 구하는 쿼리(카운트 쿼리) 때문에 데이터가 많은 경우 성능이 안 나오는 경우가 많다.
     // 따라서 카운트 쿼리를 잘 짜는 것이 중요한다.
+    // 카운트 쿼리 자체를 캐시하거나 생략하고 싶다면 MemberRepositoryCustom.findPageByAge(age, pageable, CountStrategy)를 사용하자.
     // 예를들어 Member와 Team의 엔티티가 있을 때, Member의 데이터를 가져오는 쿼리, Member의 카운트 쿼리 2개가 있다.
     // Member의 데이터를 가져오는 쿼리가 Member와 Team의 조인 시 left join을 쓴다고 한다면,
     // Member의 카운트 쿼리는 join을 사용할 필요가 없다. 그냥 Member의 카운트만 세면 되는 것이다. (team과 관련한 where 절이 없다는 가정하에)
@@ -130,8 +153,80 @@ public interface MemberRepository extends JpaRepository<Member, Long> {
     // 딱히 페이지 인터페이스가 필요하지 않고, 해당 조건에 부합하는 페이지 요소들만 가져오고 싶을 때 List를 리턴 타입으로 사용하면 된다.
     List<Member> findListByAge(int age, Pageable pageable);
 
+    // Page, Slice, List 모두 offset 기반이라 뒤 페이지로 갈수록 느려진다.
+    // 깊은 페이지까지 넘겨야 하는 화면이라면 키셋 페이징(MemberRepositoryCustom.findKeysetByAge)을 사용하자.
+
+    /*
+    Projections
+    - 엔티티 전체가 아니라 필요한 속성만 조회하고 싶을 때 사용한다.
+    - 엔티티가 아닌 결과는 영속성 컨텍스트에 올라가지 않고, 변경 감지용 스냅샷도 만들지 않는다. (읽기 전용 화면에 적합)
+    - 인터페이스 기반(UsernameOnly, MemberView), 클래스 기반(MemberSummary record), 동적 Projection을 지원한다.
+    - 동적 Projection: 반환 타입을 Class 파라미터로 넘겨서 호출하는 쪽에서 고른다.
+      예: findByAge(10, UsernameOnly.class), findByAge(10, MemberSummary.class), findByAge(10, Member.class)
+    https://docs.spring.io/spring-data/jpa/docs/current/reference/html/#projections
+     */
+    List<UsernameOnly> findProjectionsByUsername(String username);
+
+    <T> List<T> findByAge(int age, Class<T> type);
+
+    <T> List<T> findProjectionsByUsername(String username, Class<T> type);
+
+    /*
+    엔티티 그래프 (@EntityGraph)
+    - Member를 조회한 뒤 member.getTeam().getName()을 호출하면 team을 조회하는 쿼리가 추가로 나간다. (N + 1 문제)
+      default_batch_fetch_size 설정으로 in 절로 묶을 수는 있지만, 그래도 쿼리가 한 번 더 나간다.
+    - @EntityGraph를 사용하면 JPQL을 직접 작성하지 않아도 연관 엔티티를 fetch join 하여 한 번에 가져온다.
+    - Member 엔티티에 정의한 @NamedEntityGraph("Member.team")를 사용한다.
+    - 실행 시점에 fetch plan을 고르고 싶다면 MemberRepositoryCustom의 MemberFetchPlan 파라미터 메서드를 사용하자.
+     */
+    @EntityGraph("Member.team")
+    List<Member> findAllWithTeamBy();
+
+    @EntityGraph("Member.team")
+    Page<Member> findPageWithTeamByAge(int age, Pageable pageable);
+
+    @EntityGraph("Member.team")
+    Page<Member> findAllWithTeamBy(Pageable pageable);
+
+    @EntityGraph("Member.team")
+    List<Member> findWithTeamByUsername(String username);
+
+    @EntityGraph("Member.team")
+    Optional<Member> findWithTeamById(Long id);
+
+    /*
+    비동기 조회
+    - @Async 메서드는 호출 즉시 CompletableFuture를 반환하고, 쿼리는 queryExecutor에서 실행된다. (AsyncQueryConfig 참고)
+    - 여러 조회를 동시에 실행한 뒤 join 하면 가장 느린 조회 시간 만큼만 기다린다. (MemberOverviewService 참고)
+    - 작업마다 자기 트랜잭션에서 실행되므로 반환된 엔티티는 준영속 상태이다. team이 필요하면 WithTeam 메서드를 쓰자.
+    https://docs.spring.io/spring-data/jpa/docs/current/reference/html/#repositories.query-async
+     */
+    @Async(AsyncQueryConfig.QUERY_EXECUTOR)
+    CompletableFuture<Page<Member>> findAsyncPageByAge(int age, Pageable pageable);
+
+    @Async(AsyncQueryConfig.QUERY_EXECUTOR)
+    CompletableFuture<List<Member>> findAsyncByUsername(String username);
+
+    @Async(AsyncQueryConfig.QUERY_EXECUTOR)
+    @EntityGraph("Member.team")
+    CompletableFuture<List<Member>> findAsyncWithTeamByAge(int age);
+
+    /*
+    비관적 락 (select ... for update)
+    - 경합이 심한 row를 수정할 때, 낙관적 락으로 재시도를 반복하는 것보다 먼저 락을 잡는 것이 나을 때 사용한다.
+    - 락은 트랜잭션이 끝날 때까지 유지되므로 반드시 쓰기 트랜잭션 안에서 호출하자.
+    - javax.persistence.lock.timeout(ms) 만큼 기다려도 락을 얻지 못하면 PessimisticLockingFailureException 계열 예외가 발생한다.
+      (H2는 쿼리 힌트 대신 DB의 LOCK_TIMEOUT 설정을 따른다.)
+     */
+    @Transactional
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "3000"))
+    Optional<Member> findWithLockById(Long id);
+
     /*
     벌크성 수정 쿼리
+    - update versioned: 하이버네이트 HQL 문법. 수정한 row의 version도 1 올린다.
+      벌크 수정 전에 읽어 둔 엔티티를 나중에 수정하면 낙관적 락 충돌로 감지된다. (덮어쓰기 방지)
     - @Modifying이 있어야 EntityManager의 executeUpdate 메서드를 실행시킨다.
     - 없다면 getResultList 등의 읽기 동작을 실행하게 된다. 그렇게 되면 IllegalStateException 이 발생하게 된다!
       executeUpdate, getResultList 메서드의 선언 파일에서 IllegalStateException 이 발생하는 이유에 대해서 읽어보자.
@@ -151,9 +246,13 @@ public interface MemberRepository extends JpaRepository<Member, Long> {
             - 벌크 연산 후 EntityManager의 clear() 실행
             - @Modifying(clearAutomatically = true) 설정 --> 자동 clear
      */
+    // 대상이 많으면 한 번의 update가 범위 전체에 락을 오래 잡는다. --> MemberBulkService(청크 단위 커밋) 참고
+    // 쿼리 메서드의 기본 트랜잭션은 readOnly = true 이므로 @Transactional을 붙여 쓰기 트랜잭션(primary)에서 실행한다.
+    @Transactional
     @Modifying
     //@Modifying(clearAutomatically = true)
-    @Query("update Member m set m.age = m.age + 1 where m.age >= :age")
+    // 엔티티를 거치지 않으므로 auditing이 동작하지 않는다. lastModifiedDate도 직접 갱신한다. (HTTP Last-Modified)
+    @Query("update versioned Member m set m.age = m.age + 1, m.lastModifiedDate = current_timestamp where m.age >= :age")
     int bulkAgePlus(@Param("age") int age);
 
 }
@@ -0,0 +1,61 @@
+package study.datajpa.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.support.BatchInsertResult;
+import study.datajpa.repository.support.CountStrategy;
+import study.datajpa.repository.support.InQueryOptions;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/*
+사용자 정의 리포지토리
+- 스프링 데이터 JPA 인터페이스만으로 표현하기 어려운 쿼리는 직접 구현해서 MemberRepository에 끼워 넣는다.
+- 구현 클래스 이름은 "리포지토리 인터페이스 이름 + Impl" 규칙을 따라야 스프링 데이터 JPA가 인식한다. (MemberRepositoryImpl)
+ */
+public interface MemberRepositoryCustom {
+
+    // 키셋(seek) 페이징
+    // offset 페이징은 offset 만큼의 row를 읽고 버리기 때문에 뒤 페이지로 갈수록 느려진다.
+    // 키셋 페이징은 마지막으로 본 (username, id) 다음부터 읽기 때문에 몇 번째 페이지든 비용이 같다.
+    // cursor가 null이면 첫 페이지를 조회한다.
+    KeysetSlice<Member> findKeysetByAge(int age, KeysetCursor cursor, int size);
+
+    // findPageByAge와 같은 결과를 반환하지만, 카운트 쿼리를 어떻게 실행할지 고를 수 있다. (CountStrategy 참고)
+    // 카운트 쿼리는 team 조인 없이 Member만 센다. (findPageWithCustomQueryByAge의 조인 카운트 쿼리 문제도 해결)
+    Page<Member> findPageByAge(int age, Pageable pageable, CountStrategy countStrategy);
+
+    // 실행 시점에 fetch plan(연관 엔티티를 fetch join 할지)을 고를 수 있는 조회 메서드
+    List<Member> findAll(MemberFetchPlan fetchPlan);
+
+    Page<Member> findPageByAge(int age, Pageable pageable, MemberFetchPlan fetchPlan);
+
+    List<Member> findByUsername(String username, MemberFetchPlan fetchPlan);
+
+    // findByNames의 대량 키 버전 (InQueryExecutor 참고)
+    // 키를 청크로 나눠 조회하고(필요하면 병렬), 키가 아주 많으면 임시 테이블 조인으로 조회한다.
+    List<Member> findByNames(Collection<String> names, InQueryOptions options);
+
+    // saveAll은 persist를 하나씩 쌓아 두기만 해서 영속성 컨텍스트가 계속 커진다.
+    // batchSize 마다 flush + clear 하여 메모리를 일정하게 유지하고, insert는 JDBC 배치로 나간다.
+    BatchInsertResult saveAllBatched(Iterable<Member> members, int batchSize);
+
+    // 전체 Member 스트리밍 조회 (findAll 대신 대용량 export 용도)
+    // fetchSize 만큼씩 DB에서 읽고, detachInterval 개 마다 이미 처리한 엔티티를 준영속 상태로 만든다. (StreamingQueries 참고)
+    // 트랜잭션 안에서 사용하고, 다 쓰면 반드시 close 하자.
+    Stream<Member> streamAll(int fetchSize, int detachInterval);
+
+    // DTO 스트리밍 조회. 엔티티가 영속성 컨텍스트에 올라가지 않는다.
+    Stream<MemberDto> streamAllMemberDto(int fetchSize);
+
+    // findByUsernameAndAgeGreaterThan, findOptionalByUsername의 DTO 버전 (파라미터 같음)
+    // datajpa.jdbc-fast-path.enabled=true 면 엔티티를 만들지 않고 JDBC로 바로 MemberDto를 만든다. (MemberRepositoryImpl 참고)
+    List<MemberDto> findDtoByUsernameAndAgeGreaterThan(String username, int age);
+
+    Optional<MemberDto> findOptionalDtoByUsername(String username);
+}
@@ -0,0 +1,193 @@
+package study.datajpa.repository;
+
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.support.DataAccessUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.support.BatchInsertResult;
+import study.datajpa.repository.support.BatchInserts;
+import study.datajpa.repository.support.CountQuery;
+import study.datajpa.repository.support.CountStrategy;
+import study.datajpa.repository.support.InQueryExecutor;
+import study.datajpa.repository.support.InQueryOptions;
+import study.datajpa.repository.support.PageCountCache;
+import study.datajpa.repository.support.StreamingQueries;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public class MemberRepositoryImpl implements MemberRepositoryCustom {
+
+    /*
+    MemberDto JDBC 조회 (datajpa.jdbc-fast-path.enabled=true 일 때)
+    - JPQL 경로: SQL 생성(캐시됨) --> ResultSet --> 생성자 표현식으로 MemberDto 생성 (하이버네이트 내부 처리를 거친다)
+    - JDBC 경로: 고정 SQL --> ResultSet --> MEMBER_DTO 람다가 컬럼 인덱스로 바로 MemberDto 생성 (행마다 리플렉션, 이름 조회 없음)
+    - 스프링 트랜잭션 안이라면 JpaTransactionManager가 JPA와 같은 커넥션을 JdbcTemplate에 넘겨준다.
+    - 영속성 컨텍스트를 거치지 않으므로 flush 되지 않은 변경은 보이지 않는다.
+      JPQL의 자동 flush를 흉내 내어 읽기/쓰기 트랜잭션 안에서는 먼저 flush 한다.
+    - SQL이 테이블, 컬럼 이름에 직접 의존한다. 매핑을 바꾸면 같이 바꿔야 한다. (MemberDtoFastPathTest가 엔티티 조회 결과와 비교한다.)
+     */
+    private static final String MEMBER_DTO_SQL = "select m.member_id, m.username, t.name" +
+            " from member m left join team t on t.team_id = m.team_id";
+    private static final RowMapper<MemberDto> MEMBER_DTO = (rs, rowNum) ->
+            new MemberDto(rs.getLong(1), rs.getString(2), rs.getString(3));
+
+    private final EntityManager em;
+    private final PageCountCache pageCountCache;
+    private final InQueryExecutor inQueryExecutor;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean jdbcFastPath;
+
+    public MemberRepositoryImpl(EntityManager em,
+                                PageCountCache pageCountCache,
+                                InQueryExecutor inQueryExecutor,
+                                JdbcTemplate jdbcTemplate,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${datajpa.jdbc-fast-path.enabled:false}") boolean jdbcFastPath) {
+        this.em = em;
+        this.pageCountCache = pageCountCache;
+        this.inQueryExecutor = inQueryExecutor;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.jdbcFastPath = jdbcFastPath;
+    }
+
+    @Override
+    public KeysetSlice<Member> findKeysetByAge(int age, KeysetCursor cursor, int size) {
+        return MemberKeysetQuery.findByAge(em, age, cursor, size);
+    }
+
+    @Override
+    public Page<Member> findPageByAge(int age, Pageable pageable, CountStrategy countStrategy) {
+        return findPageByAge(age, pageable, countStrategy, MemberFetchPlan.DEFAULT);
+    }
+
+    @Override
+    public List<Member> findAll(MemberFetchPlan fetchPlan) {
+        return fetchPlan.applyTo(em.createQuery("select m from Member m", Member.class), em)
+                .getResultList();
+    }
+
+    @Override
+    public Page<Member> findPageByAge(int age, Pageable pageable, MemberFetchPlan fetchPlan) {
+        return findPageByAge(age, pageable, CountStrategy.EXACT, fetchPlan);
+    }
+
+    @Override
+    public List<Member> findByUsername(String username, MemberFetchPlan fetchPlan) {
+        return fetchPlan.applyTo(em.createNamedQuery("Member.findByUsername", Member.class), em)
+                .setParameter("username", username)
+                .getResultList();
+    }
+
+    private Page<Member> findPageByAge(int age, Pageable pageable, CountStrategy countStrategy, MemberFetchPlan fetchPlan) {
+        String jpql = QueryUtils.applySorting("select m from Member m where m.age = :age", pageable.getSort(), "m");
+        TypedQuery<Member> query = fetchPlan.applyTo(em.createQuery(jpql, Member.class), em)
+                .setParameter("age", age);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset())
+                    .setMaxResults(pageable.getPageSize());
+        }
+        List<Member> content = query.getResultList();
+
+        CountQuery countQuery = new CountQuery(Member.class, "Member.findPageByAge", List.of(age),
+                () -> em.createQuery("select count(m) from Member m where m.age = :age", Long.class)
+                        .setParameter("age", age)
+                        .getSingleResult(),
+                // 최대 limit 개의 row만 세는 카운트 쿼리. 데이터가 아무리 많아도 limit 이상은 읽지 않고,
+                // 결과를 애플리케이션으로 가져오지 않고 DB에서 센다. (JPQL은 from 절 서브쿼리를 지원하지 않아서 네이티브 쿼리)
+                limit -> ((Number) em.createNativeQuery("select count(*) from (select 1 from member m where m.age = ? limit ?) t")
+                        .setParameter(1, age)
+                        .setParameter(2, limit)
+                        .getSingleResult()).longValue());
+
+        return pageCountCache.getPage(content, pageable, countStrategy, countQuery);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Member> findByNames(Collection<String> names, InQueryOptions options) {
+        return inQueryExecutor.findAll(names,
+                chunk -> em.createQuery("select m from Member m where m.username in :names", Member.class)
+                        .setParameter("names", chunk)
+                        .getResultList(),
+                Member::getUsername,
+                keyTable -> em.createNativeQuery("select m.* from member m" +
+                                " join " + keyTable + " k on m.username = k.k" +
+                                " order by k.seq", Member.class)
+                        .getResultList(),
+                options);
+    }
+
+    @Override
+    @Transactional
+    public BatchInsertResult saveAllBatched(Iterable<Member> members, int batchSize) {
+        return BatchInserts.persistAll(em, eventPublisher, members, batchSize);
+    }
+
+    @Override
+    public Stream<Member> streamAll(int fetchSize, int detachInterval) {
+        return StreamingQueries.streamAll(em, Member.class, fetchSize, detachInterval);
+    }
+
+    @Override
+    public Stream<MemberDto> streamAllMemberDto(int fetchSize) {
+        return em.createQuery("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name)" +
+                        " from Member m left join m.team t", MemberDto.class)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    @Override
+    public List<MemberDto> findDtoByUsernameAndAgeGreaterThan(String username, int age) {
+        if (jdbcFastPath) {
+            flushIfWritable();
+            return jdbcTemplate.query(MEMBER_DTO_SQL + " where m.username = ? and m.age > ?", MEMBER_DTO, username, age);
+        }
+        return em.createQuery("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name)" +
+                        " from Member m left join m.team t" +
+                        " where m.username = :username and m.age > :age", MemberDto.class)
+                .setParameter("username", username)
+                .setParameter("age", age)
+                .getResultList();
+    }
+
+    // findOptionalByUsername과 마찬가지로 결과가 2개 이상이면 IncorrectResultSizeDataAccessException
+    @Override
+    public Optional<MemberDto> findOptionalDtoByUsername(String username) {
+        List<MemberDto> result;
+        if (jdbcFastPath) {
+            flushIfWritable();
+            result = jdbcTemplate.query(MEMBER_DTO_SQL + " where m.username = ? limit 2", MEMBER_DTO, username);
+        } else {
+            result = em.createQuery("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name)" +
+                            " from Member m left join m.team t" +
+                            " where m.username = :username", MemberDto.class)
+                    .setParameter("username", username)
+                    .setMaxResults(2)
+                    .getResultList();
+        }
+        return Optional.ofNullable(DataAccessUtils.singleResult(result));
+    }
+
+    private void flushIfWritable() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            em.flush();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package study.datajpa.repository;
+
+/*
+인터페이스 기반 Projection + @Query
+- select 절의 alias(as id, as username, as teamName)와 getter 이름을 맞추면 된다.
+- findMemberDto처럼 new 명령어와 패키지 이름까지 적은 생성자 표현식을 쓰지 않아도 된다.
+ */
+public interface MemberView {
+
+    Long getId();
+
+    String getUsername();
+
+    String getTeamName();
+}
@@ -1,7 +1,12 @@
 package study.datajpa.repository;
 
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.entity.Team;
+import study.datajpa.repository.support.BatchInsertResult;
+import study.datajpa.repository.support.BatchInserts;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
@@ -9,16 +14,25 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
+@RequiredArgsConstructor
 public class TeamJpaRepository {
 
     @PersistenceContext
     private EntityManager em;
 
+    private final ApplicationEventPublisher eventPublisher;
+
     public Team save(Team team) {
         em.persist(team);
         return team;
     }
 
+    // 대량 insert: batchSize 마다 flush(JDBC 배치) + clear(영속성 컨텍스트 비우기)
+    @Transactional
+    public BatchInsertResult saveAllBatched(Iterable<Team> teams, int batchSize) {
+        return BatchInserts.persistAll(em, eventPublisher, teams, batchSize);
+    }
+
     public void delete(Team team) {
         em.remove(team);
     }
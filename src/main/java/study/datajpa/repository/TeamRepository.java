@@ -2,10 +2,54 @@ package study.datajpa.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
+import study.datajpa.repository.support.AsyncQueryConfig;
 
-public interface TeamRepository extends JpaRepository<Team, Long> {
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
+public interface TeamRepository extends JpaRepository<Team, Long>, TeamRepositoryCustom {
+
+    // 쿼리 캐시: 같은 파라미터로 다시 조회하면 DB 대신 캐시된 결과(Team id 목록)를 사용한다.
+    // Team 테이블이 수정되면 하이버네이트가 자동으로 무효화한다. (default-update-timestamps-region)
+    // Team 엔티티 자체는 2차 캐시에서 가져온다.
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Page<Team> findByNationality(String nationality, Pageable pageable);
+
+    // 동적 Projection (MemberRepository 참고)
+    // 예: findByNationality("Korea", TeamSummary.class)
+    <T> List<T> findByNationality(String nationality, Class<T> type);
+
+    // 팀원 페이징 조회
+    // team.getMembers()는 팀원 전체를 로딩하므로 팀원이 많은 팀이라면 이 메서드로 나눠서 읽자.
+    // Slice이므로 count 쿼리는 나가지 않는다. 팀원 수가 필요하면 countMembersByTeamId를 사용한다.
+    // (team_id 인덱스 idx_member_team 사용)
+    @Query("select m from Member m where m.team.id = :teamId")
+    Slice<Member> findMembersByTeamId(@Param("teamId") Long teamId, Pageable pageable);
+
+    @Query("select count(m) from Member m where m.team.id = :teamId")
+    long countMembersByTeamId(@Param("teamId") Long teamId);
+
+    // 비관적 락 (MemberRepository.findWithLockById 참고)
+    @Transactional
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "3000"))
+    Optional<Team> findWithLockById(Long id);
+
+    // 비동기 조회 (MemberRepository 참고)
+    @Async(AsyncQueryConfig.QUERY_EXECUTOR)
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    CompletableFuture<Page<Team>> findAsyncByNationality(String nationality, Pageable pageable);
 }
@@ -0,0 +1,12 @@
+package study.datajpa.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.support.CountStrategy;
+
+public interface TeamRepositoryCustom {
+
+    // findByNationality와 같은 결과를 반환하지만, 카운트 쿼리를 어떻게 실행할지 고를 수 있다. (CountStrategy 참고)
+    Page<Team> findByNationality(String nationality, Pageable pageable, CountStrategy countStrategy);
+}
@@ -0,0 +1,45 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.support.CountQuery;
+import study.datajpa.repository.support.CountStrategy;
+import study.datajpa.repository.support.PageCountCache;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.Collections;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class TeamRepositoryImpl implements TeamRepositoryCustom {
+
+    private final EntityManager em;
+    private final PageCountCache pageCountCache;
+
+    @Override
+    public Page<Team> findByNationality(String nationality, Pageable pageable, CountStrategy countStrategy) {
+        String jpql = QueryUtils.applySorting("select t from Team t where t.nationality = :nationality", pageable.getSort(), "t");
+        TypedQuery<Team> query = em.createQuery(jpql, Team.class)
+                .setParameter("nationality", nationality);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset())
+                    .setMaxResults(pageable.getPageSize());
+        }
+        List<Team> content = query.getResultList();
+
+        CountQuery countQuery = new CountQuery(Team.class, "Team.findByNationality", Collections.singletonList(nationality),
+                () -> em.createQuery("select count(t) from Team t where t.nationality = :nationality", Long.class)
+                        .setParameter("nationality", nationality)
+                        .getSingleResult(),
+                limit -> ((Number) em.createNativeQuery("select count(*) from (select 1 from team t where t.nationality = ? limit ?) c")
+                        .setParameter(1, nationality)
+                        .setParameter(2, limit)
+                        .getSingleResult()).longValue());
+
+        return pageCountCache.getPage(content, pageable, countStrategy, countQuery);
+    }
+}
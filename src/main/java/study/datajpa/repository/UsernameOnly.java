@@ -0,0 +1,11 @@
+package study.datajpa.repository;
+
+/*
+인터페이스 기반 Closed Projection
+- 필요한 속성의 getter만 선언하면 스프링 데이터 JPA가 구현체(프록시)를 만들어 준다.
+- 메소드 이름으로 생성한 쿼리라면 select 절에서 username만 조회한다. (엔티티를 만들지 않는다)
+ */
+public interface UsernameOnly {
+
+    String getUsername();
+}
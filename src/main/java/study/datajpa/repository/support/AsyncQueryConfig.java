@@ -0,0 +1,106 @@
+package study.datajpa.repository.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.TaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/*
+비동기 조회 (@Async + CompletableFuture 리포지토리 메서드) 실행기
+- 가상 스레드를 쓸 수 있는 JDK(21+)라면 가상 스레드에서 실행하고, 아니면(Java 17) 크기가 정해진 스레드 풀에서 실행한다.
+  - 가상 스레드 API는 Java 17에서 컴파일되지 않으므로 리플렉션으로 찾는다.
+- 가상 스레드는 몇 개든 만들 수 있지만 DB 커넥션은 그렇지 않다.
+  동시에 실행하는 조회 수를 max-concurrency로 제한한다. (커넥션 풀 크기 이하로 잡자)
+- 작업마다 별도의 트랜잭션, 영속성 컨텍스트에서 실행된다.
+  - 호출한 쪽 트랜잭션에서 flush 하지 않은 변경은 보이지 않는다.
+  - 반환된 엔티티는 준영속 상태이므로 지연 로딩이 필요하면 @EntityGraph 메서드를 사용하자.
+  - SqlExecutionStats 등 스레드 별 통계는 작업 스레드 기준으로 쌓인다. (요청 단위 SQL 메트릭에는 포함되지 않는다.)
+- queryExecutor는 이름으로만 사용한다. (@Async(QUERY_EXECUTOR))
+  Executor 빈이 하나라도 있으면 스프링 부트가 기본 실행기(applicationTaskExecutor)를 만들지 않으므로 여기서 똑같이 등록한다.
+  타입으로 주입받는 곳(@Async 기본 실행기, MVC 비동기 요청 등)은 기본 실행기를 사용한다. (@Primary)
+ */
+@Slf4j
+@EnableAsync
+@Configuration
+public class AsyncQueryConfig {
+
+    public static final String QUERY_EXECUTOR = "queryExecutor";
+
+    @Bean(name = QUERY_EXECUTOR, destroyMethod = "shutdown")
+    public AsyncQueryExecutor queryExecutor(@Value("${datajpa.async-query.virtual-threads:true}") boolean virtualThreads,
+                                            @Value("${datajpa.async-query.max-concurrency:10}") int maxConcurrency,
+                                            @Value("${datajpa.async-query.queue-capacity:1000}") int queueCapacity) {
+        if (virtualThreads) {
+            ExecutorService virtual = newVirtualThreadPerTaskExecutor();
+            if (virtual != null) {
+                log.info("async query executor: virtual threads (max concurrency {})", maxConcurrency);
+                return new AsyncQueryExecutor(virtual, maxConcurrency);
+            }
+        }
+
+        ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+        pool.setThreadNamePrefix("query-");
+        pool.setCorePoolSize(maxConcurrency);
+        pool.setMaxPoolSize(maxConcurrency);
+        pool.setQueueCapacity(queueCapacity);   // 큐가 가득 차면 TaskRejectedException
+        pool.initialize();
+        log.info("async query executor: platform threads (pool size {})", maxConcurrency);
+        return new AsyncQueryExecutor(pool.getThreadPoolExecutor(), maxConcurrency);
+    }
+
+    // TaskExecutionAutoConfiguration.applicationTaskExecutor와 같은 정의 (spring.task.execution.* 설정 사용)
+    @Lazy
+    @Primary
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(TaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;    // Java 17 또는 preview 기능이 꺼진 JDK
+        }
+    }
+
+    /*
+    동시 실행 수를 세마포어로 제한하는 실행기
+    - 대기는 작업 스레드 안에서 한다. 가상 스레드라면 대기 비용이 거의 없고, 호출한 스레드는 막히지 않는다.
+     */
+    public static class AsyncQueryExecutor extends TaskExecutorAdapter {
+
+        private final ExecutorService executorService;
+
+        AsyncQueryExecutor(ExecutorService executorService, int maxConcurrency) {
+            super(executorService);
+            this.executorService = executorService;
+            Semaphore permits = new Semaphore(maxConcurrency);
+            setTaskDecorator(task -> () -> {
+                permits.acquireUninterruptibly();
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+
+        public void shutdown() {
+            executorService.shutdown();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package study.datajpa.repository.support;
+
+import java.time.Duration;
+
+/*
+대량 insert 결과 리포트
+- 저장한 row 수, flush/clear 횟수(배치 수), 걸린 시간, 초당 처리량
+ */
+public record BatchInsertResult(long rows, long batches, Duration elapsed) {
+
+    public double rowsPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : rows * 1_000_000_000.0 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d rows, %d batches, %d ms, %.1f rows/sec",
+                rows, batches, elapsed.toMillis(), rowsPerSecond());
+    }
+}
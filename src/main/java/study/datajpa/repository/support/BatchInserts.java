@@ -0,0 +1,67 @@
+package study.datajpa.repository.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+/*
+대량 insert 공통 로직
+- persist는 insert 쿼리를 쓰기 지연 SQL 저장소에 쌓아 두기만 한다.
+- batchSize 마다 flush 하면 쌓인 insert 쿼리가 JDBC 배치로 한 번에 나간다. (hibernate.jdbc.batch_size, order_inserts 설정 필요)
+- flush 직후 clear 하여 영속성 컨텍스트(1차 캐시, 스냅샷)가 계속 커지지 않도록 한다.
+- persist 마다 EntityChangedEvent를 발행하지 않고(EntityChangeListener.suppress), flush 한 배치마다 엔티티 타입 별로 한 번 발행한다.
+  캐시 무효화(PageCountCache, QueryCacheEvictor)는 트랜잭션 안에서는 커밋할 때 한 번만 실행된다.
+
+주의점
+- clear 하기 때문에 호출하기 전에 영속성 컨텍스트에 있던 엔티티들도 모두 준영속 상태가 된다.
+- 트랜잭션 안에서 호출해야 한다. (flush는 트랜잭션이 필요하다)
+ */
+@Slf4j
+public final class BatchInserts {
+
+    private BatchInserts() {
+    }
+
+    public static <T> BatchInsertResult persistAll(EntityManager em, ApplicationEventPublisher eventPublisher,
+                                                   Iterable<T> entities, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize는 1 이상이어야 합니다: " + batchSize);
+        }
+
+        long start = System.nanoTime();
+        long rows = 0;
+        long batches = 0;
+        Set<Class<?>> changedTypes = new HashSet<>();
+
+        for (T entity : entities) {
+            EntityChangeListener.suppress(() -> {
+                em.persist(entity);
+                return null;
+            });
+            changedTypes.add(entity.getClass());
+            if (++rows % batchSize == 0) {
+                flushBatch(em, eventPublisher, changedTypes);
+                batches++;
+            }
+        }
+        if (rows % batchSize != 0) {
+            flushBatch(em, eventPublisher, changedTypes);
+            batches++;
+        }
+
+        BatchInsertResult result = new BatchInsertResult(rows, batches, Duration.ofNanos(System.nanoTime() - start));
+        log.info("batch insert: {}", result);
+        return result;
+    }
+
+    private static void flushBatch(EntityManager em, ApplicationEventPublisher eventPublisher, Set<Class<?>> changedTypes) {
+        em.flush();     // 이미 영속성 컨텍스트에 있던 엔티티의 update(@PostUpdate) 이벤트는 그대로 발행된다.
+        em.clear();
+        changedTypes.forEach(type -> eventPublisher.publishEvent(new EntityChangedEvent(type)));
+        changedTypes.clear();
+    }
+}
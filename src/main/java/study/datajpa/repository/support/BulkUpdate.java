@@ -0,0 +1,15 @@
+package study.datajpa.repository.support;
+
+import java.util.Map;
+
+/*
+ChunkedBulkUpdater로 실행할 벌크 수정 쿼리 정의
+- update {엔티티} {alias} set {setClause} where ({whereClause}) 형태의 JPQL로 만들어진다.
+- 예: new BulkUpdate(Member.class, "m", "m.age = m.age + 1", "m.age >= :age", Map.of("age", 20))
+ */
+public record BulkUpdate(Class<?> entityType,
+                         String alias,
+                         String setClause,
+                         String whereClause,
+                         Map<String, Object> parameters) {
+}
@@ -0,0 +1,240 @@
+package study.datajpa.repository.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.BaseEntity;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.SingularAttribute;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+청크 단위 벌크 수정
+- 한 번의 거대한 update 쿼리는 대상 범위 전체에 락을 오래 잡고, undo 로그도 한꺼번에 쌓인다.
+- 대상의 id 범위(min ~ max)를 chunkSize 구간으로 나누고, 구간마다 별도의 트랜잭션으로 update 후 커밋한다.
+- 청크끼리는 id 구간이 겹치지 않으므로 병렬로 실행해도 된다. (parallelism)
+- 실패한 청크는 결과(ChunkedUpdateResult)에 남기 때문에 resume으로 실패한 청크만 다시 실행할 수 있다.
+  청크는 트랜잭션이 커밋된 뒤(afterCommit)에만 성공으로 기록하고, 인터럽트되어도 실행 중인 청크가 끝날 때까지 기다리므로
+  이미 커밋된 청크는 다시 실행하지 않는다. --> age = age + 1 같은 쿼리도 두 번 반영되지 않는다.
+  단, 결과는 메모리에만 있다. 실행 중에 프로세스가 죽으면 어느 청크가 커밋되었는지 알 수 없으므로
+  멱등하지 않은 수정(age = age + 1)은 대상 조건으로 다시 실행해도 되는지 확인하고 실행하자.
+
+실행 후 처리
+- BaseEntity는 lastModifiedDate도 함께 갱신한다. (update 쿼리에 추가)
+- 벌크 연산은 2차 캐시를 거치지 않는다. --> 2차 캐시 evict
+- EntityChangedEvent 발행 --> 카운트 캐시 등 무효화
+- 영속성 컨텍스트는 비우지 않는다. (open-in-view 처럼 호출한 쪽과 공유하는 영속성 컨텍스트의 변경 내용까지 버려지므로)
+  호출 전에 조회해 둔 엔티티는 수정 전 값이므로, 실행 후에 필요한 엔티티는 다시 조회해서 쓰자.
+
+주의점
+- 청크마다 커밋해야 하므로 트랜잭션 밖에서 호출해야 한다.
+  (바깥 트랜잭션이 대상 row에 락을 잡고 있으면 청크 트랜잭션이 기다리다 데드락이 날 수 있다.)
+ */
+@Slf4j
+@Component
+public class ChunkedBulkUpdater implements DisposableBean {
+
+    private final EntityManager em;
+    private final TransactionTemplate chunkTransaction;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // 실행마다 풀을 만들지 않고 공유한다. 한 번의 실행이 쓰는 스레드 수는 parallelism으로 제한된다.
+    private final AtomicInteger threadNumber = new AtomicInteger();
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "bulk-update-" + threadNumber.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ChunkedBulkUpdater(EntityManager em,
+                              PlatformTransactionManager transactionManager,
+                              ApplicationEventPublisher eventPublisher) {
+        this.em = em;
+        this.eventPublisher = eventPublisher;
+
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public ChunkedUpdateResult execute(BulkUpdate update, ChunkedUpdateOptions options) {
+        assertNoTransaction();
+        return run(update, split(update, options.chunkSize()), options);
+    }
+
+    // 이전 실행에서 실패한 청크만 다시 실행한다.
+    public ChunkedUpdateResult resume(BulkUpdate update, ChunkedUpdateResult previous, ChunkedUpdateOptions options) {
+        assertNoTransaction();
+        ChunkedUpdateResult retried = run(update, previous.failedChunks(), options);
+        return new ChunkedUpdateResult(previous.updatedRows() + retried.updatedRows(),
+                previous.totalChunks(), retried.failedChunks());
+    }
+
+    private ChunkedUpdateResult run(BulkUpdate update, List<ChunkedUpdateResult.Chunk> chunks, ChunkedUpdateOptions options) {
+        // 버전 속성이 있는 엔티티는 update versioned로 version도 올린다. (낙관적 락 충돌 감지)
+        String versioned = em.getMetamodel().entity(update.entityType()).hasVersionAttribute() ? "versioned " : "";
+        // auditing을 거치지 않으므로 수정 시각도 직접 갱신한다. (HTTP Last-Modified)
+        String audited = BaseEntity.class.isAssignableFrom(update.entityType())
+                ? ", " + update.alias() + ".lastModifiedDate = current_timestamp" : "";
+        String jpql = "update " + versioned + entityName(update) + " " + update.alias() +
+                " set " + update.setClause() + audited +
+                " where (" + update.whereClause() + ")" +
+                " and " + idPath(update) + " >= :chunkFrom and " + idPath(update) + " < :chunkTo";
+
+        // 커밋된 청크만 기록한다. 기록되지 않은 청크는 실패(또는 실행하지 않은) 청크이므로 resume에서 다시 실행한다.
+        Map<ChunkedUpdateResult.Chunk, Integer> committed = new ConcurrentHashMap<>();
+        Queue<ChunkedUpdateResult.Chunk> pending = new ConcurrentLinkedQueue<>(chunks);
+        AtomicBoolean stopped = new AtomicBoolean();
+        Runnable worker = () -> {
+            ChunkedUpdateResult.Chunk chunk;
+            while (!stopped.get() && (chunk = pending.poll()) != null) {
+                try {
+                    updateChunk(jpql, update, chunk, committed);
+                } catch (RuntimeException e) {
+                    log.warn("bulk update chunk failed: {}", chunk, e);
+                }
+            }
+        };
+
+        try {
+            if (options.parallelism() == 1) {
+                worker.run();
+            } else {
+                runWorkers(worker, Math.min(options.parallelism(), chunks.size()), stopped);
+            }
+        } finally {
+            afterBulkUpdate(update.entityType());
+        }
+
+        long updatedRows = committed.values().stream().mapToLong(Integer::longValue).sum();
+        List<ChunkedUpdateResult.Chunk> failedChunks = chunks.stream()
+                .filter(chunk -> !committed.containsKey(chunk))
+                .toList();
+        log.info("bulk update {}: {} rows, {} chunks, {} failed",
+                entityName(update), updatedRows, chunks.size(), failedChunks.size());
+        return new ChunkedUpdateResult(updatedRows, chunks.size(), failedChunks);
+    }
+
+    // 공유 스레드 풀에서 worker를 workers개 실행하고, 모두 끝날 때까지 기다린다.
+    // 인터럽트되면 새 청크는 시작하지 않고, 실행 중인 청크는 끝까지 기다린다.
+    // (청크 트랜잭션이 커밋되었는지 알아야 resume에서 같은 청크를 두 번 반영하지 않는다.)
+    private void runWorkers(Runnable worker, int workers, AtomicBoolean stopped) {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            futures.add(executor.submit(worker));
+        }
+
+        boolean interrupted = false;
+        for (Future<?> future : futures) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    stopped.set(true);
+                } catch (ExecutionException e) {
+                    log.warn("bulk update worker failed", e.getCause());
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // 커밋이 성공한 뒤에만(afterCommit) 청크를 기록한다.
+    private void updateChunk(String jpql, BulkUpdate update, ChunkedUpdateResult.Chunk chunk,
+                             Map<ChunkedUpdateResult.Chunk, Integer> committed) {
+        chunkTransaction.executeWithoutResult(status -> {
+            Query query = em.createQuery(jpql)
+                    .setParameter("chunkFrom", chunk.from())
+                    .setParameter("chunkTo", chunk.to());
+            update.parameters().forEach(query::setParameter);
+            int updated = query.executeUpdate();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    committed.put(chunk, updated);
+                }
+            });
+        });
+    }
+
+    // 대상 row의 id 범위를 구해서 chunkSize 구간으로 나눈다.
+    private List<ChunkedUpdateResult.Chunk> split(BulkUpdate update, long chunkSize) {
+        Object[] range = readOnlyTransaction.execute(status -> {
+            Query query = em.createQuery("select min(" + idPath(update) + "), max(" + idPath(update) + ")" +
+                    " from " + entityName(update) + " " + update.alias() +
+                    " where " + update.whereClause());
+            update.parameters().forEach(query::setParameter);
+            return (Object[]) query.getSingleResult();
+        });
+
+        List<ChunkedUpdateResult.Chunk> chunks = new ArrayList<>();
+        if (range == null || range[0] == null) {
+            return chunks;  // 대상 없음
+        }
+
+        long min = ((Number) range[0]).longValue();
+        long max = ((Number) range[1]).longValue();
+        for (long from = min; from <= max; from += chunkSize) {
+            chunks.add(new ChunkedUpdateResult.Chunk(from, Math.min(from + chunkSize, max + 1)));
+        }
+        return chunks;
+    }
+
+    private void afterBulkUpdate(Class<?> entityType) {
+        em.getEntityManagerFactory().getCache().evict(entityType);
+        eventPublisher.publishEvent(new EntityChangedEvent(entityType));
+    }
+
+    private String entityName(BulkUpdate update) {
+        return em.getMetamodel().entity(update.entityType()).getName();
+    }
+
+    private String idPath(BulkUpdate update) {
+        EntityType<?> entityType = em.getMetamodel().entity(update.entityType());
+        String idName = entityType.getSingularAttributes().stream()
+                .filter(SingularAttribute::isId)
+                .map(SingularAttribute::getName)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("id 속성이 없는 엔티티입니다: " + entityType.getName()));
+        return update.alias() + "." + idName;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private static void assertNoTransaction() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("청크마다 커밋해야 하므로 트랜잭션 밖에서 호출해야 합니다.");
+        }
+    }
+}
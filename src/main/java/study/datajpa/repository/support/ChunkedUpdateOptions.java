@@ -0,0 +1,22 @@
+package study.datajpa.repository.support;
+
+/*
+ChunkedBulkUpdater 실행 옵션
+- chunkSize   : 한 트랜잭션에서 처리할 id 구간의 크기
+- parallelism : 동시에 실행할 청크 수 (1이면 호출한 스레드에서 순서대로 실행)
+ */
+public record ChunkedUpdateOptions(long chunkSize, int parallelism) {
+
+    public ChunkedUpdateOptions {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize는 1 이상이어야 합니다: " + chunkSize);
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism은 1 이상이어야 합니다: " + parallelism);
+        }
+    }
+
+    public static ChunkedUpdateOptions sequential(long chunkSize) {
+        return new ChunkedUpdateOptions(chunkSize, 1);
+    }
+}
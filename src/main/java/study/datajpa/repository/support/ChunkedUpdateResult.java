@@ -0,0 +1,23 @@
+package study.datajpa.repository.support;
+
+import java.util.List;
+
+/*
+ChunkedBulkUpdater 실행 결과
+- 청크마다 트랜잭션이 따로 커밋되므로, 실패한 청크만 다시 실행하면 된다. (ChunkedBulkUpdater.resume)
+- failedChunks가 비어 있으면 모든 청크가 반영된 것이다.
+ */
+public record ChunkedUpdateResult(long updatedRows, int totalChunks, List<Chunk> failedChunks) {
+
+    public ChunkedUpdateResult {
+        failedChunks = List.copyOf(failedChunks);
+    }
+
+    public boolean isComplete() {
+        return failedChunks.isEmpty();
+    }
+
+    // id 구간 [from, to)
+    public record Chunk(long from, long to) {
+    }
+}
@@ -0,0 +1,84 @@
+package study.datajpa.repository.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/*
+충돌 시 재시도 실행기
+- 작업을 새 트랜잭션에서 실행하고, 커밋(flush)할 때 낙관적 락 충돌이나 락 획득 실패가 나면
+  잠깐 기다렸다가 새 트랜잭션에서 처음부터 다시 실행한다. (최대 maxAttempts 번)
+  - ConcurrencyFailureException: ObjectOptimisticLockingFailureException, PessimisticLockingFailureException 등
+- 대기 시간은 initialBackoff 부터 2배씩 늘어나고(maxBackoff 까지), 동시에 충돌한 작업끼리 다시 부딪히지 않도록 무작위로 흔든다. (jitter)
+- 재시도할 때마다 엔티티를 다시 읽어야 하므로, 작업 안에서 조회부터 수정까지 모두 해야 한다.
+  바깥에서 읽어 둔 엔티티를 넘기면 같은 충돌이 계속 난다.
+- 충돌이 나면 트랜잭션 전체가 롤백되므로 바깥 트랜잭션 안에서는 호출할 수 없다.
+ */
+@Slf4j
+@Component
+public class ConflictRetryExecutor {
+
+    private final TransactionTemplate transaction;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    public ConflictRetryExecutor(PlatformTransactionManager transactionManager,
+                                 @Value("${datajpa.conflict-retry.max-attempts:3}") int maxAttempts,
+                                 @Value("${datajpa.conflict-retry.initial-backoff:50ms}") Duration initialBackoff,
+                                 @Value("${datajpa.conflict-retry.max-backoff:1s}") Duration maxBackoff) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts는 1 이상이어야 합니다: " + maxAttempts);
+        }
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    public <T> T execute(Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("충돌 시 트랜잭션을 새로 시작해야 하므로 트랜잭션 밖에서 호출해야 합니다.");
+        }
+
+        long backoff = initialBackoff.toMillis();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transaction.execute(status -> work.get());
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.warn("conflict retry gave up after {} attempts", attempt);
+                    throw e;
+                }
+                long sleep = ThreadLocalRandom.current().nextLong(backoff / 2, backoff + 1);
+                log.debug("conflict on attempt {}, retrying in {}ms: {}", attempt, sleep, e.getMessage());
+                sleep(sleep);
+                backoff = Math.min(backoff * 2, maxBackoff.toMillis());
+            }
+        }
+    }
+
+    public void run(Runnable work) {
+        execute(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("재시도 대기 중 인터럽트 되었습니다.", e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package study.datajpa.repository.support;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+import java.util.function.LongUnaryOperator;
+
+/*
+PageCountCache에 넘기는 카운트 쿼리 정의
+- domainType, name, parameters : 캐시 키 (어떤 엔티티에 대한 어떤 쿼리를 어떤 파라미터로 실행했는지)
+- count                        : 정확한 카운트 쿼리
+- countUpTo                    : 최대 limit 개 까지만 세는 쿼리 (ESTIMATED 전략에서 사용)
+ */
+public record CountQuery(Class<?> domainType,
+                         String name,
+                         List<?> parameters,
+                         LongSupplier count,
+                         LongUnaryOperator countUpTo) {
+}
@@ -0,0 +1,16 @@
+package study.datajpa.repository.support;
+
+/*
+Page 반환 쿼리의 카운트 쿼리 전략
+- EXACT     : 매번 카운트 쿼리를 날린다. (스프링 데이터 JPA 기본 동작과 같음)
+- CACHED    : 쿼리 + 파라미터 별로 카운트 결과를 TTL 동안 캐시한다. 해당 엔티티가 저장/삭제/벌크 수정되면 캐시를 비운다.
+- ESTIMATED : 정확한 총 갯수 대신 "현재 페이지 기준 일정 범위까지만" 센다. 총 갯수가 상한에 걸리면 실제 갯수는 그보다 크다.
+
+세 전략 모두 페이지가 덜 찼을 때(첫 페이지인데 size 보다 적게 조회 되었거나, 마지막 페이지일 때)는
+카운트 쿼리 없이 총 갯수를 계산한다. (PageableExecutionUtils)
+ */
+public enum CountStrategy {
+    EXACT,
+    CACHED,
+    ESTIMATED
+}
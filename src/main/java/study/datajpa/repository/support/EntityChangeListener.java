@@ -0,0 +1,55 @@
+package study.datajpa.repository.support;
+
+import org.hibernate.Hibernate;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.function.Supplier;
+
+import javax.persistence.PostUpdate;
+import javax.persistence.PrePersist;
+import javax.persistence.PreRemove;
+
+/*
+JPA 엔티티 리스너
+- 엔티티에 @EntityListeners(EntityChangeListener.class)로 등록한다.
+- 스프링 부트는 하이버네이트에 SpringBeanContainer를 설정해 주기 때문에 엔티티 리스너도 스프링 빈을 주입 받을 수 있다.
+- persist, remove는 호출 시점(Pre)에 바로 알린다. flush 전에 캐시된 값을 다시 읽는 일이 없도록 하기 위해서이다.
+- 변경 감지에 의한 update는 flush 시점에야 알 수 있으므로 PostUpdate를 사용한다.
+- 벌크 연산(update/delete JPQL)은 엔티티 리스너를 거치지 않는다! --> ModifyingQueryListener 참고
+- 대량 저장(MemberLoader)은 row 마다 이벤트를 발행하면 캐시 무효화 비용이 배치 효과를 없앤다.
+  suppress로 감싼 구간에서는 발행하지 않고, 호출한 쪽이 커밋 단위로 직접 한 번 발행한다.
+ */
+public class EntityChangeListener {
+
+    private static final ThreadLocal<Boolean> SUPPRESSED = new ThreadLocal<>();
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public EntityChangeListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PrePersist
+    @PostUpdate
+    @PreRemove
+    public void onChange(Object entity) {
+        if (SUPPRESSED.get() != null) {
+            return;
+        }
+        eventPublisher.publishEvent(new EntityChangedEvent(Hibernate.getClass(entity)));
+    }
+
+    // 현재 스레드에서 action을 실행하는 동안 EntityChangedEvent를 발행하지 않는다. (persist, flush, commit 모두 포함)
+    // 변경을 커밋했다면 호출한 쪽이 EntityChangedEvent를 직접 발행해야 한다.
+    public static <T> T suppress(Supplier<T> action) {
+        if (SUPPRESSED.get() != null) {
+            return action.get();
+        }
+        SUPPRESSED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            SUPPRESSED.remove();
+        }
+    }
+}
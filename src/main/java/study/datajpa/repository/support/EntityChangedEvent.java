@@ -0,0 +1,9 @@
+package study.datajpa.repository.support;
+
+/*
+엔티티가 저장/수정/삭제 되었음을 알리는 이벤트
+- 엔티티 단위 변경은 EntityChangeListener가, 벌크 연산은 ModifyingQueryListener(또는 리포지토리)가 발행한다.
+- 조회 결과를 캐시하는 컴포넌트들은 이 이벤트를 받아서 해당 엔티티 타입의 캐시를 비운다.
+ */
+public record EntityChangedEvent(Class<?> entityType) {
+}
@@ -0,0 +1,166 @@
+package study.datajpa.repository.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/*
+큰 in 절 조회
+- in 절 파라미터 수가 호출마다 다르면 SQL 문자열도 매번 달라져서 statement 캐시, 실행 계획 캐시를 쓰지 못한다.
+  --> hibernate.query.in_clause_parameter_padding 설정으로 파라미터 수를 2의 거듭제곱으로 패딩한다. (application.yml)
+- DB마다 바인딩 파라미터 수에 한계가 있다. --> 키를 chunkSize 개씩 나눠서 조회한 뒤 결과를 합친다.
+  - parallelism > 1 이면 청크를 별도 스레드, 별도 읽기 전용 트랜잭션에서 조회한다.
+    이 때 결과 엔티티는 호출한 쪽의 영속성 컨텍스트에 속하지 않고(준영속), 호출한 쪽에서 flush 하지 않은 변경도 보이지 않는다.
+  - preserveOrder = true 면 결과를 입력 키 순서대로 정렬한다.
+- 키가 tempTableThreshold 개를 넘으면 in 절 대신 키를 임시 테이블에 JDBC 배치로 넣고 조인해서 한 번에 조회한다.
+  - H2의 LOCAL TEMPORARY TABLE(세션 범위)을 사용하므로 같은 커넥션을 써야 한다. --> 트랜잭션 안에서 실행한다.
+  - 결과는 항상 입력 키 순서(seq)로 정렬할 수 있다.
+- 중복 키는 한 번만 조회한다.
+ */
+@Slf4j
+@Component
+public class InQueryExecutor {
+
+    private static final String KEY_TABLE_PREFIX = "in_query_keys_";
+
+    private final EntityManager em;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public InQueryExecutor(EntityManager em, PlatformTransactionManager transactionManager) {
+        this.em = em;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * @param keys          조회할 키
+     * @param inQuery       키 청크로 in 절 조회를 실행하는 함수
+     * @param keyOf         결과에서 키를 꺼내는 함수 (preserveOrder 용)
+     * @param keyTableQuery 임시 테이블 이름을 받아서 조인 조회를 실행하는 함수.
+     *                      임시 테이블 컬럼은 seq(입력 순서), k(키). null 이면 임시 테이블을 사용하지 않는다.
+     */
+    public <K, T> List<T> findAll(Collection<K> keys,
+                                  Function<List<K>, List<T>> inQuery,
+                                  Function<? super T, K> keyOf,
+                                  Function<String, List<T>> keyTableQuery,
+                                  InQueryOptions options) {
+        List<K> distinctKeys = new ArrayList<>(new LinkedHashSet<>(keys));
+        if (distinctKeys.isEmpty()) {
+            return List.of();
+        }
+
+        if (keyTableQuery != null && options.tempTableThreshold() > 0 && distinctKeys.size() > options.tempTableThreshold()) {
+            return transaction.execute(status -> joinKeyTable(distinctKeys, keyTableQuery));
+        }
+
+        List<T> result = distinctKeys.size() <= options.chunkSize()
+                ? inQuery.apply(distinctKeys)
+                : findInChunks(distinctKeys, inQuery, options);
+        return options.preserveOrder() ? orderByKeys(distinctKeys, result, keyOf) : result;
+    }
+
+    private <K, T> List<T> findInChunks(List<K> keys, Function<List<K>, List<T>> inQuery, InQueryOptions options) {
+        List<List<K>> chunks = new ArrayList<>();
+        for (int from = 0; from < keys.size(); from += options.chunkSize()) {
+            chunks.add(keys.subList(from, Math.min(from + options.chunkSize(), keys.size())));
+        }
+
+        List<T> result = new ArrayList<>(keys.size());
+        if (options.parallelism() == 1) {
+            chunks.forEach(chunk -> result.addAll(inQuery.apply(chunk)));
+            return result;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(options.parallelism(), chunks.size()));
+        try {
+            List<Future<List<T>>> futures = new ArrayList<>();
+            for (List<K> chunk : chunks) {
+                futures.add(executor.submit(() -> readOnlyTransaction.execute(status -> inQuery.apply(chunk))));
+            }
+            for (Future<List<T>> future : futures) {
+                result.addAll(future.get());
+            }
+            return result;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("in 절 청크 조회에 실패했습니다.", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("in 절 청크 조회 중 인터럽트 되었습니다.", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private <K, T> List<T> joinKeyTable(List<K> keys, Function<String, List<T>> keyTableQuery) {
+        String table = KEY_TABLE_PREFIX + (keys.stream().allMatch(key -> key instanceof Number) ? "bigint" : "varchar");
+        String keyType = table.endsWith("bigint") ? "bigint" : "varchar(255)";
+
+        Session session = em.unwrap(Session.class);
+        session.doWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                // TRANSACTIONAL: 테이블을 만들면서 진행 중인 트랜잭션을 커밋하지 않는다.
+                statement.execute("create local temporary table if not exists " + table +
+                        " (seq int primary key, k " + keyType + " not null) transactional");
+                statement.execute("delete from " + table);
+            }
+            try (PreparedStatement insert = connection.prepareStatement("insert into " + table + " (seq, k) values (?, ?)")) {
+                for (int i = 0; i < keys.size(); i++) {
+                    insert.setInt(1, i);
+                    insert.setObject(2, keys.get(i));
+                    insert.addBatch();
+                    if ((i + 1) % 1000 == 0) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+        });
+        log.debug("in query: {} keys loaded into {}", keys.size(), table);
+
+        try {
+            return keyTableQuery.apply(table);
+        } finally {
+            session.doWork(connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("delete from " + table);
+                }
+            });
+        }
+    }
+
+    private static <K, T> List<T> orderByKeys(List<K> keys, List<T> result, Function<? super T, K> keyOf) {
+        Map<K, List<T>> byKey = new LinkedHashMap<>();
+        keys.forEach(key -> byKey.put(key, new ArrayList<>(1)));
+        List<T> unmatched = new ArrayList<>(0);   // DB collation 차이 등으로 입력 키와 정확히 같지 않은 결과는 뒤에 붙인다.
+        for (T element : result) {
+            List<T> group = byKey.get(keyOf.apply(element));
+            (group != null ? group : unmatched).add(element);
+        }
+        List<T> ordered = new ArrayList<>(result.size());
+        byKey.values().forEach(ordered::addAll);
+        ordered.addAll(unmatched);
+        return ordered;
+    }
+}
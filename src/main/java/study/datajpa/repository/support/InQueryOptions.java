@@ -0,0 +1,36 @@
+package study.datajpa.repository.support;
+
+/*
+InQueryExecutor 실행 옵션
+- chunkSize          : in 절 하나에 넣을 최대 파라미터 수.
+                       in_clause_parameter_padding이 2의 거듭제곱으로 패딩하므로 2의 거듭제곱으로 잡는 것이 좋다.
+- parallelism        : 동시에 실행할 청크 수 (1이면 호출한 스레드에서 순서대로 실행)
+- preserveOrder      : 결과를 입력 키 순서대로 정렬할지 여부
+- tempTableThreshold : 키가 이 수를 넘으면 in 절 대신 임시 테이블 조인으로 조회한다. (0 이하면 사용하지 않음)
+ */
+public record InQueryOptions(int chunkSize, int parallelism, boolean preserveOrder, int tempTableThreshold) {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1024;
+    public static final int DEFAULT_TEMP_TABLE_THRESHOLD = 10_000;
+
+    public InQueryOptions {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize는 1 이상이어야 합니다: " + chunkSize);
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism은 1 이상이어야 합니다: " + parallelism);
+        }
+    }
+
+    public static InQueryOptions defaults() {
+        return new InQueryOptions(DEFAULT_CHUNK_SIZE, 1, false, DEFAULT_TEMP_TABLE_THRESHOLD);
+    }
+
+    public InQueryOptions withParallelism(int parallelism) {
+        return new InQueryOptions(chunkSize, parallelism, preserveOrder, tempTableThreshold);
+    }
+
+    public InQueryOptions withPreserveOrder(boolean preserveOrder) {
+        return new InQueryOptions(chunkSize, parallelism, preserveOrder, tempTableThreshold);
+    }
+}
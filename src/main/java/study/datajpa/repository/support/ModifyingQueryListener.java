@@ -0,0 +1,50 @@
+package study.datajpa.repository.support;
+
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+/*
+@Modifying 벌크 연산 후 EntityChangedEvent를 발행한다.
+- JpaRepository의 deleteAllInBatch, deleteAllByIdInBatch 등도 delete 쿼리를 바로 실행하는 벌크 연산이므로 포함한다.
+- 벌크 연산은 영속성 컨텍스트와 엔티티 리스너를 거치지 않고 바로 DB에 쿼리를 날리기 때문에 별도로 알려줘야 한다.
+- 엔티티 타입은 리포지토리 인터페이스의 제네릭 타입(JpaRepository<Member, Long> 의 Member)으로 판단한다.
+ */
+@Aspect
+@Component
+public class ModifyingQueryListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ModifyingQueryListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @AfterReturning("@annotation(org.springframework.data.jpa.repository.Modifying)" +
+            " || execution(* org.springframework.data.jpa.repository.JpaRepository+.delete*InBatch(..))")
+    public void afterModifyingQuery(JoinPoint joinPoint) {
+        Class<?> domainType = domainType(joinPoint.getTarget().getClass());
+        if (domainType != null) {
+            eventPublisher.publishEvent(new EntityChangedEvent(domainType));
+        }
+    }
+
+    // deleteAllInBatch처럼 JpaRepository에 선언된 메서드는 선언 타입으로 엔티티 타입을 알 수 없으므로
+    // 리포지토리 프록시가 구현한 인터페이스(MemberRepository 등)에서 찾는다.
+    private Class<?> domainType(Class<?> repositoryClass) {
+        for (Class<?> candidate : ClassUtils.getAllInterfacesForClassAsSet(repositoryClass)) {
+            if (Repository.class.isAssignableFrom(candidate) && !candidate.getName().startsWith("org.springframework.")) {
+                Class<?>[] typeArguments = GenericTypeResolver.resolveTypeArguments(candidate, Repository.class);
+                if (typeArguments != null) {
+                    return typeArguments[0];
+                }
+            }
+        }
+        return null;
+    }
+}
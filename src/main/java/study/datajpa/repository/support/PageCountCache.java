@@ -0,0 +1,137 @@
+package study.datajpa.repository.support;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+Page 반환 쿼리의 카운트 쿼리 결과를 관리한다.
+- Page를 반환하면 매번 카운트 쿼리가 한 번 더 나가는데, 데이터가 많으면 이 카운트 쿼리가 조회 쿼리보다 더 느린 경우가 많다.
+- CountStrategy에 따라서 카운트 쿼리를 캐시하거나(CACHED), 일정 범위까지만 세거나(ESTIMATED), 그대로 실행한다(EXACT).
+
+캐시 무효화
+- EntityChangedEvent를 받으면 해당 엔티티 타입의 카운트 캐시를 모두 비운다.
+- 트랜잭션 안의 변경은 커밋할 때 엔티티 타입 별로 한 번만 비운다. (QueryCacheEvictor와 같은 방식)
+  이벤트마다 캐시 전체를 훑지 않으므로 대량 insert에서도 비용이 이벤트 수에 비례하지 않는다.
+  - 커밋 전까지 그 트랜잭션은 바뀐 엔티티 타입의 카운트를 캐시에서 읽지도, 캐시에 넣지도 않는다.
+    (자기가 바꾼 데이터는 보이고, 커밋되지 않은 카운트가 다른 스레드에 보이지 않는다.)
+  - 롤백되면 DB가 바뀌지 않았으므로 비우지 않는다.
+- 트랜잭션 밖의 변경은 바로 비운다.
+- 그 외의 변경(다른 애플리케이션, 네이티브 쿼리 등)은 TTL이 지나야 반영된다.
+ */
+@Component
+public class PageCountCache {
+
+    private final Duration ttl;
+    private final int maxEntries;
+    private final int estimatePages;
+
+    private final Map<CacheKey, CachedCount> cache = new ConcurrentHashMap<>();
+
+    public PageCountCache(@Value("${datajpa.count-cache.ttl:30s}") Duration ttl,
+                          @Value("${datajpa.count-cache.max-entries:10000}") int maxEntries,
+                          @Value("${datajpa.count-cache.estimate-pages:10}") int estimatePages) {
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+        this.estimatePages = Math.max(estimatePages, 1);
+    }
+
+    public <T> Page<T> getPage(List<T> content, Pageable pageable, CountStrategy strategy, CountQuery countQuery) {
+        return switch (strategy) {
+            case EXACT -> PageableExecutionUtils.getPage(content, pageable, countQuery.count());
+            case CACHED -> PageableExecutionUtils.getPage(content, pageable, () -> getCachedCount(countQuery));
+            // 현재 페이지부터 estimatePages 페이지 앞까지만 센다. 총 갯수가 상한과 같다면 "그 이상"이라는 의미이다.
+            case ESTIMATED -> PageableExecutionUtils.getPage(content, pageable,
+                    () -> countQuery.countUpTo().applyAsLong(
+                            pageable.getOffset() + (long) pageable.getPageSize() * estimatePages + 1));
+        };
+    }
+
+    private long getCachedCount(CountQuery countQuery) {
+        if (changedInCurrentTransaction(countQuery.domainType())) {
+            return countQuery.count().getAsLong();
+        }
+
+        CacheKey key = new CacheKey(countQuery.domainType(), countQuery.name(), countQuery.parameters());
+        long now = System.nanoTime();
+
+        CachedCount cached = cache.get(key);
+        if (cached != null && !cached.isExpired(now)) {
+            return cached.count();
+        }
+
+        long count = countQuery.count().getAsLong();
+        if (cache.size() >= maxEntries) {
+            cache.values().removeIf(value -> value.isExpired(now));
+            if (cache.size() >= maxEntries) {
+                cache.clear();
+            }
+        }
+        cache.put(key, new CachedCount(count, now + ttl.toNanos()));
+        return count;
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(event.entityType());
+            return;
+        }
+
+        // 트랜잭션 당 한 번만 등록하고, 바뀐 엔티티 타입만 모아 둔다.
+        @SuppressWarnings("unchecked")
+        Set<Class<?>> changedTypes = (Set<Class<?>>) TransactionSynchronizationManager.getResource(this);
+        if (changedTypes == null) {
+            Set<Class<?>> types = new HashSet<>();
+            changedTypes = types;
+            TransactionSynchronizationManager.bindResource(this, types);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    types.forEach(PageCountCache.this::evict);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PageCountCache.this);
+                }
+            });
+        }
+        changedTypes.add(event.entityType());
+    }
+
+    private boolean changedInCurrentTransaction(Class<?> domainType) {
+        Object changedTypes = TransactionSynchronizationManager.getResource(this);
+        return changedTypes instanceof Set<?> types && types.contains(domainType);
+    }
+
+    public void evict(Class<?> domainType) {
+        cache.keySet().removeIf(key -> key.domainType().equals(domainType));
+    }
+
+    public void evictAll() {
+        cache.clear();
+    }
+
+    private record CacheKey(Class<?> domainType, String name, List<?> parameters) {
+    }
+
+    private record CachedCount(long count, long expiresAt) {
+
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
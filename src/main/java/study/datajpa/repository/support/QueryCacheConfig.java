@@ -0,0 +1,71 @@
+package study.datajpa.repository.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.jcache.JCacheCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import javax.cache.configuration.MutableConfiguration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+조회 결과 캐시 (스프링 캐시 추상화 + JCache)
+- 자주 호출되지만 거의 바뀌지 않는 조회 메서드에 @Cacheable(QueryCacheConfig.XXX)을 붙인다.
+- 캐시 키는 메서드 파라미터로 만든다. (SimpleKeyGenerator)
+  PageRequest, Sort는 equals/hashCode가 값 기반이고 Serializable 이므로 Pageable 파라미터도 그대로 키가 된다.
+- 캐시 별 TTL, 최대 크기는 캐시 프로바이더 설정에 둔다. (Caffeine: application.conf)
+- 무효화: QueryCacheEvictor가 EntityChangedEvent를 받아서 ENTITY_CACHES에 등록된 캐시를 비운다. (트랜잭션 안이라면 커밋할 때)
+- 캐시 매니저는 트랜잭션을 인식한다. (transactionAwareQueryCache)
+  트랜잭션 안에서의 put/evict는 커밋 후에 반영되므로, 커밋되지 않은(롤백될 수도 있는) 조회 결과가 다른 스레드에 보이지 않는다.
+- hit/miss 통계: 액추에이터가 cache.gets{name, result=hit|miss} 메트릭으로 노출한다. (/actuator/metrics/cache.gets)
+  시작 시점에 존재하는 캐시만 등록되므로 queryCacheCustomizer에서 캐시를 미리 만들어 둔다.
+
+캐시 프로바이더 교체
+- spring.cache.jcache.provider 에 다른 JCache 구현체(Hazelcast, Ehcache, Redisson 등)를 지정하면 코드 변경 없이 외부 캐시로 바꿀 수 있다.
+  이 때 캐시 값은 직렬화되므로 결과 타입(MemberDto 등)이 Serializable 이어야 한다.
+- spring.cache.type=none 이면 캐시를 사용하지 않는다. (매번 DB 조회)
+
+주의
+- 캐시된 List는 여러 호출자가 같은 인스턴스를 공유한다. (Caffeine은 store-by-value를 사용하지 않음) 읽기 전용으로만 사용하자.
+- 엔티티는 캐시하지 않는다. 분리(detached)된 엔티티를 여러 트랜잭션이 공유하게 되기 때문이다.
+  엔티티 조회 결과는 하이버네이트 쿼리 캐시(org.hibernate.cacheable 힌트) + 2차 캐시를 사용한다. (MemberRepository.findTop3By)
+ */
+@Slf4j
+@EnableCaching
+@Configuration
+public class QueryCacheConfig {
+
+    public static final String MEMBER_USERNAMES = "memberUsernames";
+    public static final String MEMBER_DTOS = "memberDtos";
+    public static final String MEMBER_COUNTS = "memberCounts";
+
+    // 엔티티 타입 별로 비워야 하는 캐시 (MemberDto에는 Team.name이 들어 있다.)
+    static final Map<Class<?>, List<String>> ENTITY_CACHES = Map.of(
+            Member.class, List.of(MEMBER_USERNAMES, MEMBER_DTOS, MEMBER_COUNTS),
+            Team.class, List.of(MEMBER_DTOS));
+
+    private static final Set<String> CACHE_NAMES = Set.of(MEMBER_USERNAMES, MEMBER_DTOS, MEMBER_COUNTS);
+
+    @Bean
+    public CacheManagerCustomizer<JCacheCacheManager> transactionAwareQueryCache() {
+        return cacheManager -> cacheManager.setTransactionAware(true);
+    }
+
+    @Bean
+    public JCacheManagerCustomizer queryCacheCustomizer() {
+        return cacheManager -> CACHE_NAMES.forEach(name -> {
+            // Caffeine은 application.conf에 정의된 캐시를 getCache 시점에 만든다.
+            if (cacheManager.getCache(name) == null) {
+                log.warn("캐시 프로바이더 설정에 {} 캐시가 없습니다. 만료/크기 제한 없이 생성합니다.", name);
+                cacheManager.createCache(name, new MutableConfiguration<>().setStatisticsEnabled(true));
+            }
+        });
+    }
+}
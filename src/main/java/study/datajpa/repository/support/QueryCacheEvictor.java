@@ -0,0 +1,78 @@
+package study.datajpa.repository.support;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+조회 결과 캐시(QueryCacheConfig) 무효화
+- 엔티티 저장/수정/삭제, 벌크 연산 시 발행되는 EntityChangedEvent를 받아서 관련 캐시를 비운다.
+- 트랜잭션 안의 변경은 커밋할 때 엔티티 타입 별로 한 번만 비운다.
+  (BatchInserts, MemberLoader처럼 persist가 수만 번 일어나도 캐시는 커밋마다 한 번만 비운다.)
+  롤백되면 DB가 바뀌지 않았으므로 비우지 않는다.
+- 캐시 매니저가 트랜잭션을 인식하므로(QueryCacheConfig) 트랜잭션 안에서 조회한 결과도 커밋 후에 캐시에 들어간다.
+  커밋되지 않은 데이터, 롤백될 데이터가 다른 스레드에 보이지 않는다.
+- 트랜잭션 밖의 변경(트랜잭션 없이 호출한 벌크 연산 등)은 바로 비운다.
+- 다른 애플리케이션, 네이티브 쿼리로 바뀐 데이터는 TTL이 지나야 반영된다.
+ */
+@Component
+public class QueryCacheEvictor {
+
+    private final CacheManager cacheManager;
+
+    public QueryCacheEvictor(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(event.entityType());
+            return;
+        }
+
+        // 트랜잭션 당 한 번만 등록하고, 바뀐 엔티티 타입만 모아 둔다.
+        @SuppressWarnings("unchecked")
+        Set<Class<?>> changedTypes = (Set<Class<?>>) TransactionSynchronizationManager.getResource(this);
+        if (changedTypes == null) {
+            Set<Class<?>> types = new HashSet<>();
+            changedTypes = types;
+            TransactionSynchronizationManager.bindResource(this, types);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    types.forEach(QueryCacheEvictor.this::evict);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(QueryCacheEvictor.this);
+                }
+            });
+        }
+        changedTypes.add(event.entityType());
+    }
+
+    public void evict(Class<?> entityType) {
+        for (String name : QueryCacheConfig.ENTITY_CACHES.getOrDefault(entityType, List.of())) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache == null) {
+                continue;
+            }
+            // 이미 커밋 시점이므로 트랜잭션 인식 캐시를 거치지 않고 바로 비운다.
+            // (afterCommit 도중에 등록한 동기화는 실행되지 않는다.)
+            if (cache instanceof TransactionAwareCacheDecorator decorator) {
+                cache = decorator.getTargetCache();
+            }
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package study.datajpa.repository.support;
+
+import org.hibernate.jpa.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.QueryHint;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/*
+읽기 전용 조회
+- 조회한 엔티티를 읽기 전용으로 영속성 컨텍스트에 올린다. --> 변경 감지용 스냅샷을 만들지 않고, flush 대상에서도 빠진다.
+- 엔티티를 수정해도 DB에 반영되지 않으므로 화면 출력, 리포트 등 조회만 하는 곳에서 사용하자.
+
+두 가지 방법을 함께 적용한다.
+1. @Transactional(readOnly = true)
+   - 새 트랜잭션이 시작되면 스프링이 하이버네이트 세션을 기본 읽기 전용 + FlushMode.MANUAL로 설정한다.
+   - 리포지토리 인터페이스(타입)에 붙이면 모든 메서드에 적용된다.
+   - 단, 이미 진행 중인 (읽기/쓰기) 트랜잭션에 참여하는 경우에는 효과가 없다.
+2. 쿼리 힌트 (org.hibernate.readOnly, org.hibernate.flushMode=MANUAL)
+   - 바깥 트랜잭션과 상관 없이 해당 쿼리로 조회한 엔티티만 읽기 전용으로 만든다.
+   - 스프링 데이터 JPA는 메서드에 붙은 쿼리 힌트만 지원하므로 메서드에 붙여야 적용된다.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Transactional(readOnly = true)
+@org.springframework.data.jpa.repository.QueryHints({
+        @QueryHint(name = QueryHints.HINT_READONLY, value = "true"),
+        @QueryHint(name = QueryHints.HINT_FLUSH_MODE, value = "MANUAL")
+})
+public @interface ReadOnlyQuery {
+}
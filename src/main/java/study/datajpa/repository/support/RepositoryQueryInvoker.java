@@ -0,0 +1,123 @@
+package study.datajpa.repository.support;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import study.datajpa.repository.KeysetCursor;
+
+import javax.persistence.LockModeType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.stream.BaseStream;
+
+/*
+리포지토리 조회 메서드를 더미 파라미터로 한 번씩 실행하는 도구
+- 실행 계획 점검(QueryPlanChecker), 시작 시 워밍업(QueryWarmup)에서 사용한다.
+- 조회 메서드만 실행한다.
+  - 스프링 데이터 JPA 인터페이스: 선언된 메서드 중 @Modifying, 비동기(Future) 메서드 제외
+    + 상속한 인터페이스(JpaRepository, MemberRepositoryCustom 등)의 메서드 중 이름이 find / count / total / stream 으로 시작하는 메서드
+      (save, delete, saveAllBatched 같은 변경 메서드 제외)
+  - 순수 JPA 리포지토리 클래스: public 메서드 중 이름이 find / count / total / stream 으로 시작하는 메서드
+- boundedQueryMethods: 운영 DB에서 실행해도 되는 메서드만 고른다. (QueryWarmup)
+  - 결과가 한 건(단건, Optional, count, KeysetSlice(size = 1))이거나 Pageable 파라미터로 크기가 정해지는 메서드
+    List, Stream 등 파라미터와 상관없이 테이블 전체를 읽을 수 있는 메서드는 제외한다.
+  - 락을 거는 메서드(@Lock, LockModeType 파라미터, 메서드 안에서 LockModeType을 쓰는 ...ForUpdate) 제외
+- Pageable은 크기 1인 첫 페이지로 실행한다.
+- 제네릭 파라미터(findById(ID))는 리포지토리 타입 기준으로 풀어서 더미 값을 만든다.
+- enum 파라미터(CountStrategy, MemberFetchPlan)는 첫 번째 상수, KeysetCursor는 null(첫 페이지)로 실행한다.
+- 반환된 Stream은 바로 close 한다.
+- 호출하는 쪽에서 롤백 전용 트랜잭션으로 감싸서 실행하자.
+ */
+public final class RepositoryQueryInvoker {
+
+    private static final List<String> QUERY_PREFIXES = List.of("find", "count", "total", "stream");
+
+    private RepositoryQueryInvoker() {
+    }
+
+    public static List<Method> queryMethods(Class<?> repositoryType) {
+        Method[] methods = repositoryType.isInterface() ? repositoryType.getMethods() : repositoryType.getDeclaredMethods();
+        return Arrays.stream(methods)
+                .filter(method -> !method.isSynthetic() && !method.isDefault() && !Modifier.isStatic(method.getModifiers()))
+                .filter(method -> !method.isAnnotationPresent(Modifying.class))
+                .filter(method -> !Future.class.isAssignableFrom(method.getReturnType()))
+                .filter(method -> repositoryType.isInterface() && method.getDeclaringClass() == repositoryType
+                        || Modifier.isPublic(method.getModifiers()) && QUERY_PREFIXES.stream().anyMatch(method.getName()::startsWith))
+                .toList();
+    }
+
+    public static List<Method> boundedQueryMethods(Class<?> repositoryType) {
+        return queryMethods(repositoryType).stream()
+                .filter(method -> !method.isAnnotationPresent(Lock.class)
+                        && Arrays.stream(method.getParameterTypes()).noneMatch(LockModeType.class::equals)
+                        && !method.getName().contains("ForUpdate"))
+                .filter(method -> Arrays.asList(method.getParameterTypes()).contains(Pageable.class)
+                        || !isMultiRow(method.getReturnType()))
+                .toList();
+    }
+
+    private static boolean isMultiRow(Class<?> returnType) {
+        return Iterable.class.isAssignableFrom(returnType)      // Collection, Page, Slice
+                || BaseStream.class.isAssignableFrom(returnType)
+                || returnType.isArray();
+    }
+
+    /**
+     * @return 실행했으면 true. 지원하지 않는 파라미터 타입이 있으면 실행하지 않고 false.
+     * @throws InvocationTargetException 메서드가 예외를 던진 경우 (더미 파라미터라 실패할 수 있다.)
+     */
+    public static boolean invoke(Object repository, Method method, Class<?> domainType) throws InvocationTargetException {
+        Object[] args = dummyArguments(method, repository.getClass(), domainType);
+        if (args == null) {
+            return false;
+        }
+        try {
+            Object result = method.invoke(repository, args);
+            if (result instanceof BaseStream<?, ?> stream) {
+                stream.close();
+            }
+            return true;
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static Object[] dummyArguments(Method method, Class<?> repositoryClass, Class<?> domainType) {
+        Object[] args = new Object[method.getParameterCount()];
+        for (int i = 0; i < args.length; i++) {
+            Class<?> type = ResolvableType.forMethodParameter(method, i, repositoryClass).resolve(Object.class);
+            if (type == String.class) {
+                args[i] = "warmup";
+            } else if (type == int.class || type == Integer.class) {
+                args[i] = 1;
+            } else if (type == long.class || type == Long.class) {
+                args[i] = 1L;
+            } else if (Collection.class.isAssignableFrom(type)) {
+                args[i] = List.of("warmup");
+            } else if (type == Pageable.class) {
+                args[i] = PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "id"));
+            } else if (type == Sort.class) {
+                args[i] = Sort.by(Sort.Direction.DESC, "id");
+            } else if (type == Class.class) {
+                args[i] = domainType;   // 동적 Projection: 엔티티 타입으로 조회
+            } else if (type.isEnum()) {
+                args[i] = type.getEnumConstants()[0];
+            } else if (type == KeysetCursor.class) {
+                args[i] = null;         // 첫 페이지
+            } else if (type == InQueryOptions.class) {
+                args[i] = InQueryOptions.defaults();
+            } else {
+                return null;
+            }
+        }
+        return args;
+    }
+}
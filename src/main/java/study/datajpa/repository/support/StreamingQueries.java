@@ -0,0 +1,79 @@
+package study.datajpa.repository.support;
+
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.jpa.QueryHints;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/*
+스트리밍 조회 공통 로직
+- getResultStream()은 하이버네이트에서 ScrollMode.FORWARD_ONLY 커서로 동작한다.
+  즉, 결과 전체를 List로 만들지 않고 JDBC fetch size 만큼씩 DB에서 읽어 온다.
+- 그러나 조회된 엔티티는 여전히 영속성 컨텍스트에 쌓인다. 그래서 일정 갯수 마다 준영속 상태로 만들어야 메모리가 일정하게 유지된다.
+
+detach (clear를 쓰지 않는 이유)
+- em.clear()는 호출한 쪽 트랜잭션에서 flush 되지 않은 다른 엔티티의 변경까지 모두 버린다. (데이터 유실)
+- 그래서 이 스트림이 내보낸 엔티티만 em.detach 한다.
+- detach 전에 flush 한다. 소비자가 스트림 엔티티를 수정했거나 호출한 쪽이 다른 엔티티를 수정했어도 반영된다.
+  읽기 전용 트랜잭션(FlushMode.MANUAL)에서는 어차피 반영되지 않으므로 flush 하지 않는다.
+
+주의점
+- 스트림을 다 쓸 때까지 커넥션을 잡고 있으므로 트랜잭션 안에서 사용하고, 반드시 close 하자. (try-with-resources)
+- detach는 "다음 row를 읽기 직전"에 실행한다. 즉, 소비자가 처리 중인 엔티티는 영속 상태이고, 이미 처리한 엔티티는 준영속 상태가 된다.
+- 스트리밍 전에 이미 영속 상태였던 엔티티가 결과에 포함되면 그 인스턴스도 준영속 상태가 된다. (변경은 flush로 반영된 뒤)
+ */
+public final class StreamingQueries {
+
+    private StreamingQueries() {
+    }
+
+    // 엔티티 전체 스트리밍 조회 (MemberJpaRepository.streamAll, MemberRepository.streamAll)
+    public static <T> Stream<T> streamAll(EntityManager em, Class<T> entityType, int fetchSize, int detachInterval) {
+        String entityName = em.getMetamodel().entity(entityType).getName();
+        Stream<T> stream = em.createQuery("select e from " + entityName + " e", entityType)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+        return detachEvery(stream, em, detachInterval);
+    }
+
+    public static <T> Stream<T> detachEvery(Stream<T> stream, EntityManager em, int interval) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("interval은 1 이상이어야 합니다: " + interval);
+        }
+
+        Spliterator<T> source = stream.spliterator();
+        Spliterator<T> detaching = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+
+            private final List<T> emitted = new ArrayList<>(interval);
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                if (emitted.size() == interval) {
+                    detachEmitted();
+                }
+                return source.tryAdvance(entity -> {
+                    emitted.add(entity);
+                    action.accept(entity);
+                });
+            }
+
+            private void detachEmitted() {
+                if (em.isJoinedToTransaction() && em.unwrap(Session.class).getHibernateFlushMode() != FlushMode.MANUAL) {
+                    em.flush();
+                }
+                emitted.forEach(em::detach);
+                emitted.clear();
+            }
+        };
+
+        return StreamSupport.stream(detaching, false).onClose(stream::close);
+    }
+}
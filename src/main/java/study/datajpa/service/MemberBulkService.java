@@ -0,0 +1,36 @@
+package study.datajpa.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.support.BulkUpdate;
+import study.datajpa.repository.support.ChunkedBulkUpdater;
+import study.datajpa.repository.support.ChunkedUpdateOptions;
+import study.datajpa.repository.support.ChunkedUpdateResult;
+
+import java.util.Map;
+
+/*
+Member 벌크 수정
+- MemberRepository.bulkAgePlus와 같은 수정을 id 구간 단위로 나누어 청크마다 커밋한다. (ChunkedBulkUpdater 참고)
+- 청크마다 트랜잭션이 따로 필요하므로 이 서비스에는 @Transactional을 붙이지 않는다.
+ */
+@Service
+@RequiredArgsConstructor
+public class MemberBulkService {
+
+    private final ChunkedBulkUpdater chunkedBulkUpdater;
+
+    public ChunkedUpdateResult agePlus(int age, ChunkedUpdateOptions options) {
+        return chunkedBulkUpdater.execute(agePlusUpdate(age), options);
+    }
+
+    // 이전 실행에서 실패한 청크만 다시 실행한다.
+    public ChunkedUpdateResult resumeAgePlus(int age, ChunkedUpdateResult previous, ChunkedUpdateOptions options) {
+        return chunkedBulkUpdater.resume(agePlusUpdate(age), previous, options);
+    }
+
+    private static BulkUpdate agePlusUpdate(int age) {
+        return new BulkUpdate(Member.class, "m", "m.age = m.age + 1", "m.age >= :age", Map.of("age", age));
+    }
+}
@@ -0,0 +1,80 @@
+package study.datajpa.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.repository.MemberRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/*
+Member 전체 export
+- 결과를 List로 모으지 않고 DTO 스트림에서 한 건씩 꺼내서 바로 출력 스트림에 쓴다.
+- DB 커서(fetch size) --> DTO --> 응답 스트림 순서로 흘러가므로 데이터 양과 상관 없이 메모리 사용량이 일정하다.
+- 스트림을 다 쓸 때까지 커넥션을 사용해야 하므로 읽기 전용 트랜잭션 안에서 실행한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class MemberExportService {
+
+    private final MemberRepository memberRepository;
+    private final ObjectMapper objectMapper;
+
+    // 한 줄에 JSON 객체 하나 (application/x-ndjson)
+    public long writeNdjson(OutputStream out, int fetchSize) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long rows = 0;
+        try (Stream<MemberDto> stream = memberRepository.streamAllMemberDto(fetchSize)) {
+            Iterator<MemberDto> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                writer.write(objectMapper.writeValueAsString(iterator.next()));
+                writer.write('\n');
+                rows++;
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    public long writeCsv(OutputStream out, int fetchSize) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("id,username,teamName\n");
+        long rows = 0;
+        try (Stream<MemberDto> stream = memberRepository.streamAllMemberDto(fetchSize)) {
+            Iterator<MemberDto> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                MemberDto dto = iterator.next();
+                writer.write(String.valueOf(dto.getId()));
+                writer.write(',');
+                writer.write(csv(dto.getUsername()));
+                writer.write(',');
+                writer.write(csv(dto.getTeamName()));
+                writer.write('\n');
+                rows++;
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    // 쉼표, 따옴표, 줄바꿈이 있으면 따옴표로 감싸고 따옴표는 두 번 쓴다. (RFC 4180)
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
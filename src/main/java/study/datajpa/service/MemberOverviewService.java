@@ -0,0 +1,38 @@
+package study.datajpa.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import study.datajpa.dto.MemberSummary;
+import study.datajpa.dto.TeamSummary;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.concurrent.CompletableFuture;
+
+/*
+여러 조회를 한 번에 모아서 보여주는 화면용 서비스
+- Member 페이지와 Team 페이지를 비동기 조회로 동시에 실행한다.
+  순서대로 조회하면 두 조회 시간의 합, 동시에 조회하면 느린 쪽 시간 만큼 걸린다.
+- 조회는 각자 자기 트랜잭션에서 실행되므로 이 서비스에는 @Transactional을 붙이지 않는다.
+ */
+@Service
+@RequiredArgsConstructor
+public class MemberOverviewService {
+
+    private final MemberRepository memberRepository;
+    private final TeamRepository teamRepository;
+
+    public CompletableFuture<MemberOverview> overview(int age, String nationality, Pageable pageable) {
+        CompletableFuture<Page<MemberSummary>> members = memberRepository.findAsyncPageByAge(age, pageable)
+                .thenApply(page -> page.map(m -> new MemberSummary(m.getId(), m.getUsername(), m.getAge())));
+        CompletableFuture<Page<TeamSummary>> teams = teamRepository.findAsyncByNationality(nationality, pageable)
+                .thenApply(page -> page.map(t -> new TeamSummary(t.getId(), t.getName(), t.getNationality())));
+
+        return members.thenCombine(teams, MemberOverview::new);
+    }
+
+    public record MemberOverview(Page<MemberSummary> members, Page<TeamSummary> teams) {
+    }
+}
@@ -0,0 +1,60 @@
+package study.datajpa.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+import study.datajpa.repository.support.ConflictRetryExecutor;
+
+import java.util.function.IntUnaryOperator;
+
+/*
+Member 수정
+- 여러 요청이 같은 Member를 동시에 수정해도 서로 덮어쓰지 않도록 낙관적 락(@Version)을 사용하고,
+  충돌하면 ConflictRetryExecutor가 새 트랜잭션에서 다시 읽어서 다시 수정한다.
+- 재시도마다 트랜잭션을 새로 시작하므로 이 서비스에는 @Transactional을 붙이지 않는다.
+- 같은 row에 충돌이 너무 잦다면 changeAgeWithLock 처럼 비관적 락을 먼저 잡는 편이 낫다.
+ */
+@Service
+@RequiredArgsConstructor
+public class MemberUpdateService {
+
+    private final MemberRepository memberRepository;
+    private final TeamRepository teamRepository;
+    private final ConflictRetryExecutor conflictRetryExecutor;
+
+    public Member changeAge(Long memberId, IntUnaryOperator ageFunction) {
+        return conflictRetryExecutor.execute(() -> {
+            Member member = findMember(memberId);
+            member.setAge(ageFunction.applyAsInt(member.getAge()));
+            return member;
+        });
+    }
+
+    public Member changeTeam(Long memberId, Long teamId) {
+        return conflictRetryExecutor.execute(() -> {
+            Member member = findMember(memberId);
+            Team team = teamRepository.findById(teamId)
+                    .orElseThrow(() -> new IllegalArgumentException("Team이 없습니다: " + teamId));
+            member.changeTeam(team);
+            return member;
+        });
+    }
+
+    // 비관적 락: select ... for update 로 먼저 락을 잡으므로 충돌(재시도)이 나지 않는다. 대신 동시에 수정하는 요청은 줄을 선다.
+    public Member changeAgeWithLock(Long memberId, IntUnaryOperator ageFunction) {
+        return conflictRetryExecutor.execute(() -> {
+            Member member = memberRepository.findWithLockById(memberId)
+                    .orElseThrow(() -> new IllegalArgumentException("Member가 없습니다: " + memberId));
+            member.setAge(ageFunction.applyAsInt(member.getAge()));
+            return member;
+        });
+    }
+
+    private Member findMember(Long memberId) {
+        return memberRepository.findById(memberId)
+                .orElseThrow(() -> new IllegalArgumentException("Member가 없습니다: " + memberId));
+    }
+}
@@ -0,0 +1,138 @@
+package study.datajpa.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.MemberReportRepository;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamJpaRepository;
+import study.datajpa.repository.TeamRepository;
+import study.datajpa.repository.support.RepositoryQueryInvoker;
+
+import javax.persistence.EntityManager;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+시작 시 워밍업 (datajpa.warmup.enabled=true, prod 프로파일에서 켠다.)
+배포 직후 첫 요청들이 느린(p99 튀는) 원인을 미리 치운다.
+1. 쿼리 컴파일: 결과 크기가 정해진 리포지토리 조회 메서드를 더미 파라미터로 한 번씩 실행한다.
+   (롤백 전용 트랜잭션, RepositoryQueryInvoker.boundedQueryMethods)
+   - JPQL 파싱/SQL 변환 결과가 하이버네이트 쿼리 플랜 캐시에 올라간다.
+     MemberJpaRepository처럼 문자열 JPQL을 호출 시점에 만드는 쿼리, 메서드 이름 쿼리(Criteria)도 포함된다.
+   - 운영 DB에서 실행하므로 단건/카운트 조회와 Pageable(크기 1인 첫 페이지) 조회만 실행한다.
+     List, Stream을 반환하는 메서드(findAllWithTeamBy, findMemberDto 등)는 테이블 전체를 읽을 수 있어서 실행하지 않는다.
+     이 중 @Query, 네임드 쿼리는 스프링 데이터가 시작 시 검증하면서 이미 컴파일해 두므로 빠지는 것은 메서드 이름 쿼리뿐이다.
+   - 락을 거는 메서드(findWithLockById 등)는 실행하지 않는다.
+2. 팀원이 많은 Team을 preload-teams 개 조회해서 2차 캐시에 올린다.
+
+- statement를 미리 prepare 하지 않는다. Hikari와 H2 드라이버는 statement를 캐시하지 않아서
+  prepare 후 바로 close 하면 남는 것이 없다. (커넥션 풀은 Hikari가 minimum-idle 까지 알아서 채운다.)
+- ApplicationRunner로 실행한다. 스프링 부트는 모든 runner가 끝난 뒤 readiness 상태를 ACCEPTING_TRAFFIC으로 바꾸므로
+  워밍업이 끝나기 전에는 readiness probe(/actuator/health/readiness)가 트래픽을 받지 않는다.
+- 단계 별 소요 시간을 로그로 남긴다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "datajpa.warmup.enabled", havingValue = "true")
+public class QueryWarmup implements ApplicationRunner {
+
+    private final Map<Class<?>, Object> repositories = new LinkedHashMap<>();
+    private final TransactionTemplate rollbackTransaction;
+    private final TransactionTemplate readOnlyTransaction;
+    private final EntityManager em;
+    private final TeamRepository teamRepository;
+    private final int preloadTeams;
+
+    public QueryWarmup(MemberRepository memberRepository,
+                       TeamRepository teamRepository,
+                       MemberReportRepository memberReportRepository,
+                       MemberJpaRepository memberJpaRepository,
+                       TeamJpaRepository teamJpaRepository,
+                       PlatformTransactionManager transactionManager,
+                       EntityManager em,
+                       @Value("${datajpa.warmup.preload-teams:100}") int preloadTeams) {
+        repositories.put(MemberRepository.class, memberRepository);
+        repositories.put(TeamRepository.class, teamRepository);
+        repositories.put(MemberReportRepository.class, memberReportRepository);
+        repositories.put(MemberJpaRepository.class, memberJpaRepository);
+        repositories.put(TeamJpaRepository.class, teamJpaRepository);
+        this.rollbackTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.em = em;
+        this.teamRepository = teamRepository;
+        this.preloadTeams = preloadTeams;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+
+        int methods = compileQueries();
+        long compiled = System.nanoTime();
+
+        int teams = preloadTeams();
+        long end = System.nanoTime();
+
+        log.info("warmup finished in {}ms (compile {} query methods: {}ms, preload {} teams: {}ms)",
+                millis(end - start),
+                methods, millis(compiled - start),
+                teams, millis(end - compiled));
+    }
+
+    private int compileQueries() {
+        int compiled = 0;
+        for (Map.Entry<Class<?>, Object> entry : repositories.entrySet()) {
+            Class<?> repositoryType = entry.getKey();
+            Class<?> domainType = repositoryType.getSimpleName().startsWith("Team") ? Team.class : Member.class;
+            for (Method method : RepositoryQueryInvoker.boundedQueryMethods(repositoryType)) {
+                Boolean invoked = rollbackTransaction.execute(status -> {
+                    status.setRollbackOnly();
+                    try {
+                        return RepositoryQueryInvoker.invoke(entry.getValue(), method, domainType);
+                    } catch (InvocationTargetException e) {
+                        log.debug("warmup invocation failed: {}", method, e.getCause());
+                        return true;
+                    }
+                });
+                if (Boolean.TRUE.equals(invoked)) {
+                    compiled++;
+                }
+            }
+        }
+        return compiled;
+    }
+
+    // 팀원이 많은 순서로 Team을 조회해서 2차 캐시에 올린다.
+    private int preloadTeams() {
+        if (preloadTeams <= 0) {
+            return 0;
+        }
+        Integer loaded = readOnlyTransaction.execute(status -> {
+            List<Long> teamIds = em.createQuery("select m.team.id from Member m" +
+                            " where m.team is not null" +
+                            " group by m.team.id" +
+                            " order by count(m) desc", Long.class)
+                    .setMaxResults(preloadTeams)
+                    .getResultList();
+            return teamRepository.findAllById(teamIds).size();
+        });
+        return loaded == null ? 0 : loaded;
+    }
+
+    private static long millis(long nanos) {
+        return nanos / 1_000_000;
+    }
+}
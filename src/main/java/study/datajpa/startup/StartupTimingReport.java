@@ -0,0 +1,74 @@
+package study.datajpa.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+시작 시간 리포트
+- DataJpaApplication이 BufferingApplicationStartup으로 기록한 시작 단계(StartupStep)를 모아서 로그로 남긴다.
+  - 단계 별 합계: 컨텍스트 refresh, 빈 생성, 리포지토리 스캔, EntityManagerFactory 생성 등
+  - 가장 오래 걸린 빈 생성 10개 (의존하는 빈을 만드는 시간도 포함된다.)
+- JVM 시작부터 ready 까지의 시간(time to ready)도 남긴다.
+- 테스트처럼 BufferingApplicationStartup을 쓰지 않고 시작했다면 time to ready만 남긴다.
+- 타임라인은 지우지 않으므로 /actuator/startup 에서도 같은 내용을 볼 수 있다.
+ */
+@Slf4j
+@Component
+public class StartupTimingReport {
+
+    private static final int SLOWEST_BEANS = 10;
+
+    @EventListener
+    public void report(ApplicationReadyEvent event) {
+        long timeToReady = ManagementFactory.getRuntimeMXBean().getUptime();
+        ApplicationStartup startup = event.getApplicationContext().getApplicationStartup();
+        if (!(startup instanceof BufferingApplicationStartup buffering)) {
+            log.info("startup: ready in {}ms (JVM uptime)", timeToReady);
+            return;
+        }
+
+        List<StartupTimeline.TimelineEvent> events = buffering.getBufferedTimeline().getEvents();
+        Map<String, Duration> byPhase = new LinkedHashMap<>();
+        for (StartupTimeline.TimelineEvent timelineEvent : events) {
+            byPhase.merge(timelineEvent.getStartupStep().getName(), timelineEvent.getDuration(), Duration::plus);
+        }
+
+        StringBuilder report = new StringBuilder("startup: ready in ").append(timeToReady).append("ms (JVM uptime)");
+        byPhase.entrySet().stream()
+                .filter(phase -> !phase.getKey().equals("spring.beans.instantiate"))
+                .sorted(Map.Entry.<String, Duration>comparingByValue().reversed())
+                .forEach(phase -> report.append("\n  ").append(phase.getKey()).append(": ").append(phase.getValue().toMillis()).append("ms"));
+
+        report.append("\n  slowest beans:");
+        events.stream()
+                .filter(timelineEvent -> timelineEvent.getStartupStep().getName().equals("spring.beans.instantiate"))
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(SLOWEST_BEANS)
+                .forEach(timelineEvent -> report.append("\n    ").append(beanName(timelineEvent.getStartupStep()))
+                        .append(": ").append(timelineEvent.getDuration().toMillis()).append("ms"));
+
+        log.info(report.toString());
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if (tag.getKey().equals("beanName")) {
+                return tag.getValue();
+            }
+        }
+        return step.getName();
+    }
+}
@@ -0,0 +1,127 @@
+package study.datajpa.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import javax.persistence.EntityManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class MemberControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    EntityManager em;
+
+    // 같은 ETag로 다시 요청하면 바디 없이 304, 엔티티가 바뀌면 ETag도 바뀐다.
+    @Test
+    void conditionalGet() throws Exception {
+        Team team = teamRepository.save(new Team("teamA", "Korea"));
+        Member member = memberRepository.save(new Member("member1", 10, team));
+        em.flush();
+        em.clear();
+
+        String etag = mockMvc.perform(get("/members/{id}", member.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("member1"))
+                .andExpect(jsonPath("$.teamName").value("teamA"))
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/members/{id}", member.getId()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        memberRepository.findById(member.getId()).orElseThrow().setAge(11);
+        em.flush();
+        em.clear();
+
+        mockMvc.perform(get("/members/{id}", member.getId()).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.age").value(11));
+    }
+
+    // 응답에 팀 이름이 들어가므로 팀만 수정되어도 ETag, Last-Modified가 바뀐다.
+    @Test
+    void conditionalGetWithTeam() throws Exception {
+        Team team = teamRepository.save(new Team("teamA", "Korea"));
+        Member member = memberRepository.save(new Member("member1", 10, team));
+        em.flush();
+        em.clear();
+
+        MockHttpServletResponse before = mockMvc.perform(get("/members/{id}", member.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        String listEtag = mockMvc.perform(get("/members"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        Thread.sleep(1000);     // Last-Modified는 초 단위
+        teamRepository.findById(team.getId()).orElseThrow().setName("teamB");
+        em.flush();
+        em.clear();
+
+        mockMvc.perform(get("/members/{id}", member.getId()).header("If-None-Match", before.getHeader("ETag")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.teamName").value("teamB"));
+        mockMvc.perform(get("/members/{id}", member.getId()).header("If-Modified-Since", before.getHeader("Last-Modified")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/members").header("If-None-Match", listEtag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void pagingAndKeyset() throws Exception {
+        Team team = teamRepository.save(new Team("teamA", "Korea"));
+        for (int i = 0; i < 5; i++) {
+            memberRepository.save(new Member("member" + i, 10, team));
+        }
+        em.flush();
+        em.clear();
+
+        mockMvc.perform(get("/members").param("size", "2").param("sort", "username,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].username").value("member4"))
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().doesNotExist("Last-Modified"));   // 목록은 ETag로만 검증
+
+        String cursor = JsonPath.read(
+                mockMvc.perform(get("/members/keyset").param("age", "10").param("size", "3"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.content.length()").value(3))
+                        .andExpect(jsonPath("$.hasNext").value(true))
+                        .andReturn().getResponse().getContentAsString(),
+                "$.nextCursor");
+
+        mockMvc.perform(get("/members/keyset").param("age", "10").param("size", "3").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").isEmpty());
+
+        mockMvc.perform(get("/members/keyset").param("age", "10").param("cursor", "!!"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/members/{id}", -1L))
+                .andExpect(status().isNotFound());
+    }
+}
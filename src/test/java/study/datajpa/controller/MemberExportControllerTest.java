@@ -0,0 +1,74 @@
+package study.datajpa.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class MemberExportControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    EntityManager em;
+
+    @Test
+    void exportNdjsonAndCsv() throws Exception {
+        // given
+        Team team = teamRepository.save(new Team("export,team"));
+        memberRepository.save(new Member("export1", 10, team));
+        memberRepository.save(new Member("export2", 10));
+        em.flush();
+        long total = memberRepository.count();
+
+        // when: ndjson
+        String ndjson = mockMvc.perform(get("/members/export").param("fetchSize", "1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        // then: 한 줄에 한 건
+        List<String> lines = ndjson.lines().toList();
+        assertEquals(total, lines.size());
+        assertTrue(lines.stream().anyMatch(line -> line.contains("\"username\":\"export1\"")
+                && line.contains("\"teamName\":\"export,team\"")));
+
+        // when: csv
+        String csv = mockMvc.perform(get("/members/export").param("format", "csv"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"members.csv\""))
+                .andReturn().getResponse().getContentAsString();
+
+        // then: 헤더 + 한 줄에 한 건, 쉼표가 있는 값은 따옴표로 감싼다.
+        List<String> rows = csv.lines().toList();
+        assertEquals("id,username,teamName", rows.get(0));
+        assertEquals(total + 1, rows.size());
+        assertTrue(rows.stream().anyMatch(row -> row.endsWith(",export1,\"export,team\"")));
+    }
+
+    @Test
+    void unsupportedFormat() throws Exception {
+        mockMvc.perform(get("/members/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,103 @@
+package study.datajpa.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 스프링 컨텍스트 없이 트랜잭션 상태만 직접 바꿔 가며 라우팅 결과(커넥션 URL)를 확인한다.
+class ReplicaRoutingDataSourceTest {
+
+    ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        RoutingProperties properties = new RoutingProperties(true, Duration.ofSeconds(10), Duration.ofHours(1),
+                Duration.ofSeconds(1), List.of());
+        routingDataSource = new ReplicaRoutingDataSource(h2("primary"),
+                List.of(h2("replica0"), h2("replica1"), new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/down")),
+                properties);
+        routingDataSource.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        routingDataSource.destroy();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void routing() throws SQLException {
+        // 트랜잭션 밖, 쓰기 트랜잭션 --> primary
+        assertTrue(urlOfConnection().contains("primary"));
+
+        // 읽기 전용 트랜잭션 --> 살아 있는 복제본끼리 라운드 로빈 (죽은 replica-2는 건너뛴다)
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        String first = urlOfConnection();
+        String second = urlOfConnection();
+        String third = urlOfConnection();
+        assertTrue(first.contains("replica"));
+        assertNotEquals(first, second);
+        assertEquals(first, third);
+    }
+
+    @Test
+    void readYourWrites() throws SQLException {
+        // 쓰기 트랜잭션 커밋
+        TransactionSynchronizationManager.initSynchronization();
+        assertTrue(urlOfConnection().contains("primary"));
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // 커밋 직후 같은 스레드의 읽기 전용 트랜잭션 --> primary
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertTrue(urlOfConnection().contains("primary"));
+    }
+
+    // 커넥션 풀은 빈이 아니므로 라우팅 DataSource가 종료될 때 함께 닫혀야 한다.
+    @Test
+    void destroyClosesPools() {
+        HikariDataSource primary = pool("primary");
+        HikariDataSource replica = pool("replica0");
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, List.of(replica),
+                new RoutingProperties(true, Duration.ofSeconds(10), Duration.ofHours(1), Duration.ofSeconds(1), List.of()));
+        dataSource.afterPropertiesSet();
+
+        dataSource.destroy();
+
+        assertTrue(primary.isClosed());
+        assertTrue(replica.isClosed());
+    }
+
+    private String urlOfConnection() throws SQLException {
+        try (Connection connection = routingDataSource.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+
+    private static DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    private static HikariDataSource pool(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setPoolName(name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,162 @@
+package study.datajpa.loader;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+import study.datajpa.repository.support.EntityChangedEvent;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 로더가 배치마다 커밋하므로 트랜잭션 없이 실행하고 직접 지운다.
+@SpringBootTest
+class MemberLoaderTest {
+
+    @Autowired
+    MemberLoader memberLoader;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    MemberEventCounter memberEvents;
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllInBatch(memberRepository.findByAge(66, Member.class));
+        teamRepository.deleteAllInBatch(teamRepository.findAll().stream()
+                .filter(team -> team.getName() != null && team.getName().startsWith("loader"))
+                .toList());
+    }
+
+    @Test
+    void loadCsv() throws Exception {
+        // given: 팀 3개에 나눠진 25명 + 따옴표 안의 쉼표, 줄바꿈 + 잘못된 나이
+        StringBuilder csv = new StringBuilder("id,username,age,teamName\n");
+        for (int i = 0; i < 25; i++) {
+            csv.append(i).append(",loader").append(i).append(",66,loaderTeam").append(i % 3).append('\n');
+        }
+        csv.append("25,\"loader,\"\"quoted\"\"\n25\",66,loaderTeam0\n");
+        csv.append("26,broken,notNumber,loaderTeam0\n");
+        Path file = Files.writeString(dir.resolve("members.csv"), csv);
+
+        // when
+        memberEvents.count.set(0);
+        LoadResult result = memberLoader.load(file, LoadOptions.defaults().withWorkers(3).withBatchSize(4));
+
+        // then
+        assertEquals(26, result.loadedRows());
+        assertEquals(1, result.failedRows());
+        assertEquals(3, result.createdTeams());
+        // row 마다가 아니라 커밋한 배치(27건 / 4)마다 한 번
+        assertEquals(7, memberEvents.count.get());
+
+        List<Member> members = memberRepository.findByAge(66, Member.class);
+        assertEquals(26, members.size());
+        assertTrue(members.stream().anyMatch(member -> member.getUsername().equals("loader,\"quoted\"\n25")));
+        assertEquals(8, teamRepository.countMembersByTeamId(teamIdOf("loaderTeam1")));
+    }
+
+    @Test
+    void loadNdjson() throws Exception {
+        Path file = Files.writeString(dir.resolve("members.ndjson"), """
+                {"username": "loaderJson1", "age": 66, "teamName": "loaderJsonTeam"}
+                {"username": "loaderJson2", "age": 66, "teamName": "loaderJsonTeam", "id": 100}
+
+                {"username": "loaderJson3", "age": 66}
+                """);
+
+        LoadResult result = memberLoader.load(file, LoadOptions.defaults());
+
+        assertEquals(3, result.loadedRows());
+        assertEquals(0, result.failedRows());
+        assertEquals(1, result.createdTeams());
+        assertEquals(2, teamRepository.countMembersByTeamId(teamIdOf("loaderJsonTeam")));
+    }
+
+    private Long teamIdOf(String name) {
+        return teamRepository.findAll().stream()
+                .filter(team -> name.equals(team.getName()))
+                .map(Team::getId)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    // 커밋에 실패한 배치(username 길이 초과)는 통째로 롤백되고 나머지 배치는 저장된다.
+    @Test
+    void failedBatchIsRolledBack() throws Exception {
+        // given: 4건씩 3배치, 두 번째 배치에 varchar(255)를 넘는 username
+        StringBuilder csv = new StringBuilder("username,age\n");
+        for (int i = 0; i < 12; i++) {
+            csv.append(i == 5 ? "x".repeat(300) : "loader" + i).append(",66\n");
+        }
+        Path file = Files.writeString(dir.resolve("members.csv"), csv);
+
+        // when
+        memberEvents.count.set(0);
+        LoadResult result = memberLoader.load(file, LoadOptions.defaults().withWorkers(2).withBatchSize(4));
+
+        // then
+        assertEquals(8, result.loadedRows());
+        assertEquals(4, result.failedRows());
+        assertEquals(2, memberEvents.count.get());
+
+        List<String> usernames = memberRepository.findByAge(66, Member.class).stream().map(Member::getUsername).toList();
+        assertEquals(8, usernames.size());
+        assertFalse(usernames.contains("loader4"));
+        assertTrue(usernames.contains("loader8"));
+    }
+
+    // 워커가 모두 죽었는데 큐가 가득 차 있으면 영원히 기다리지 않고 실패한다.
+    @Test
+    void putFailsWhenAllWorkersDied() {
+        BlockingQueue<MemberLoader.Batch> queue = new ArrayBlockingQueue<>(1);
+        queue.add(new MemberLoader.Batch(1, List.of("full")));
+        List<Future<?>> workers = List.of(
+                CompletableFuture.completedFuture(null), CompletableFuture.failedFuture(new IllegalStateException()));
+
+        assertThrows(IllegalStateException.class,
+                () -> MemberLoader.put(queue, new MemberLoader.Batch(2, List.of("blocked")), workers));
+    }
+
+    @TestConfiguration
+    static class MemberEventCounterConfig {
+
+        @Bean
+        MemberEventCounter memberEventCounter() {
+            return new MemberEventCounter();
+        }
+    }
+
+    static class MemberEventCounter {
+
+        final AtomicInteger count = new AtomicInteger();
+
+        @EventListener
+        void onEntityChanged(EntityChangedEvent event) {
+            if (event.entityType() == Member.class) {
+                count.incrementAndGet();
+            }
+        }
+    }
+}
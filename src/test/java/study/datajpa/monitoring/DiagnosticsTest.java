@@ -0,0 +1,65 @@
+package study.datajpa.monitoring;
+
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import javax.persistence.EntityManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 모든 SQL이 슬로우 쿼리로 남도록 threshold를 0으로 둔다.
+@SpringBootTest(properties = {"datajpa.diagnostics.enabled=true", "datajpa.slow-query.threshold=0ms"})
+@Transactional
+@ExtendWith(OutputCaptureExtension.class)
+class DiagnosticsTest {
+
+    @Autowired
+    HibernateStatisticsEndpoint endpoint;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    EntityManager em;
+
+    @Test
+    void hibernateStatistics() {
+        // given
+        Team team = teamRepository.save(new Team("statsTeam"));
+        memberRepository.save(new Member("stats1", 10, team));
+        em.flush();
+        em.clear();
+        endpoint.clear();
+
+        // when
+        memberRepository.findByUsername("stats1");
+        Hibernate.initialize(teamRepository.findById(team.getId()).orElseThrow().getMembers());
+
+        // then
+        HibernateStatisticsEndpoint.Report report = endpoint.report(null);
+        assertTrue(report.statisticsEnabled());
+        assertTrue(report.queries().stream().anyMatch(query -> query.query().contains("m.username = :username")));
+        assertTrue(report.entities().stream()
+                .anyMatch(entity -> entity.entity().equals(Member.class.getName()) && entity.loadCount() >= 1));
+        assertTrue(report.collections().stream()
+                .anyMatch(collection -> collection.role().equals(Team.class.getName() + ".members") && collection.fetchCount() >= 1));
+    }
+
+    @Test
+    void slowQueryLog(CapturedOutput output) {
+        memberRepository.findByUsername("slowQueryUser");
+
+        assertTrue(output.getOut().contains("[MemberRepository.findByUsername]"));
+        assertTrue(output.getOut().contains("'slowQueryUser'"));
+    }
+}
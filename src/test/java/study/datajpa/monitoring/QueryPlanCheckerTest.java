@@ -0,0 +1,62 @@
+package study.datajpa.monitoring;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "datajpa.explain-check.enabled=true")
+@ExtendWith(OutputCaptureExtension.class)
+class QueryPlanCheckerTest {
+
+    // 인덱스 컬럼(age)에 연산을 씌우면 인덱스를 쓰지 못하고 풀 스캔한다.
+    private static final String FULL_SCAN = "select * from member m where m.age + 1 = 2";
+    private static final String INDEX_SCAN = "select * from member m where m.username = 'a' and m.age = 1";
+
+    @Autowired
+    QueryPlanChecker queryPlanChecker;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void fullScanWarning(CapturedOutput output) {
+        assertTrue(queryPlanChecker.isFullScan("test.fullScan", FULL_SCAN));
+        assertTrue(output.getOut().contains("full scan: test.fullScan -> PUBLIC.MEMBER"));
+
+        assertFalse(queryPlanChecker.isFullScan("test.indexScan", INDEX_SCAN));
+        assertFalse(output.getOut().contains("test.indexScan"));
+    }
+
+    @Test
+    void checkRepositories(CapturedOutput output) {
+        queryPlanChecker.check();
+
+        assertTrue(output.getOut().contains("explain check finished"));
+    }
+
+    @Test
+    void failOnFullScan() {
+        QueryPlanChecker failing = new QueryPlanChecker(memberRepository, teamRepository, transactionManager, jdbcTemplate, true);
+
+        assertTrue(failing.isFullScan("test.fullScan", FULL_SCAN));
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> failing.report(List.of("test.fullScan")));
+        assertTrue(e.getMessage().contains("test.fullScan"));
+        assertDoesNotThrow(() -> failing.report(List.of()));
+    }
+}
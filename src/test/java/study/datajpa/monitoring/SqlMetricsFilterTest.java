@@ -0,0 +1,70 @@
+package study.datajpa.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import study.datajpa.repository.MemberRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// datajpa.sql-metrics.n-plus-one-threshold = 10
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(SqlMetricsFilterTest.RepeatedQueryController.class)
+class SqlMetricsFilterTest {
+
+    private static final String URI = "/test/repeated-query";
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void nPlusOneCounter() throws Exception {
+        // 임계값 이하: 카운트하지 않는다.
+        mockMvc.perform(get(URI).param("times", "10")).andExpect(status().isOk());
+        assertEquals(0, nPlusOneCount());
+
+        // 같은 모양의 SQL 11번 --> 1 증가
+        mockMvc.perform(get(URI).param("times", "11")).andExpect(status().isOk());
+        assertEquals(1, nPlusOneCount());
+
+        mockMvc.perform(get(URI).param("times", "20")).andExpect(status().isOk());
+        assertEquals(2, nPlusOneCount());
+    }
+
+    private double nPlusOneCount() {
+        Counter counter = meterRegistry.find("datajpa.sql.n_plus_one").tag("uri", URI).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    // 루프 안에서 조회하는 전형적인 N + 1 모양의 요청
+    @RestController
+    static class RepeatedQueryController {
+
+        private final MemberRepository memberRepository;
+
+        RepeatedQueryController(MemberRepository memberRepository) {
+            this.memberRepository = memberRepository;
+        }
+
+        @GetMapping(URI)
+        int repeat(@RequestParam int times) {
+            for (int i = 0; i < times; i++) {
+                memberRepository.findByUsername("nPlusOne" + i);
+            }
+            return times;
+        }
+    }
+}
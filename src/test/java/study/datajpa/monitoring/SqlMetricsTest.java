@@ -0,0 +1,61 @@
+package study.datajpa.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class SqlMetricsTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
+    EntityManager em;
+
+    @Test
+    void repositoryMethodMetrics() {
+        // given
+        memberRepository.save(new Member("metrics1", 10));
+        memberRepository.save(new Member("metrics2", 10));
+        em.flush();
+        em.clear();
+
+        // when
+        memberRepository.findByUsernameAndAgeGreaterThan("metrics1", 5);
+        memberJpaRepository.findAll();
+
+        // then
+        DistributionSummary statements = meterRegistry.get("datajpa.repository.sql.statements")
+                .tag("method", "MemberRepository.findByUsernameAndAgeGreaterThan")
+                .summary();
+        assertTrue(statements.count() >= 1);
+        assertTrue(statements.totalAmount() >= 1);
+
+        DistributionSummary rows = meterRegistry.get("datajpa.repository.sql.rows")
+                .tag("method", "MemberJpaRepository.findAll")
+                .summary();
+        assertTrue(rows.totalAmount() >= 2);
+    }
+
+    @Test
+    void statementShape() {
+        assertEquals(
+                SqlExecutionStats.shapeOf("select * from member m where m.member_id in (?, ?, ?)"),
+                SqlExecutionStats.shapeOf("select * from member m where m.member_id in (?,?)"));
+    }
+}
@@ -0,0 +1,8 @@
+package study.datajpa.repository;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+// JDBC 경로 (SQL이 매핑과 어긋나면 여기서 깨진다.)
+@SpringBootTest(properties = "datajpa.jdbc-fast-path.enabled=true")
+class MemberDtoFastPathTest extends MemberDtoQueryTest {
+}
@@ -0,0 +1,8 @@
+package study.datajpa.repository;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+// JPQL 경로 (기본값: datajpa.jdbc-fast-path.enabled=false)
+@SpringBootTest
+class MemberDtoJpqlPathTest extends MemberDtoQueryTest {
+}
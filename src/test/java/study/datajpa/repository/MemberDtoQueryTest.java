@@ -0,0 +1,52 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// MemberDto 조회 메서드가 엔티티 조회 결과와 같은 MemberDto를 만드는지 확인한다.
+// JDBC 경로(MemberDtoFastPathTest), JPQL 경로(MemberDtoJpqlPathTest) 모두 같은 테스트를 실행한다.
+@Transactional
+abstract class MemberDtoQueryTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Test
+    void sameResultAsEntityQuery() {
+        // given: flush 하지 않은 상태에서 조회해도 보여야 한다.
+        Team team = teamRepository.save(new Team("fastTeam"));
+        memberRepository.save(new Member("fast", 10, team));
+        memberRepository.save(new Member("fast", 20, team));
+        memberRepository.save(new Member("fast", 30));
+        memberRepository.save(new Member("fastSingle", 30, team));
+
+        // when
+        List<MemberDto> dtos = memberRepository.findDtoByUsernameAndAgeGreaterThan("fast", 15);
+
+        // then
+        List<MemberDto> expected = memberRepository.findByUsernameAndAgeGreaterThan("fast", 15).stream()
+                .map(m -> new MemberDto(m.getId(), m.getUsername(), m.getTeam() == null ? null : m.getTeam().getName()))
+                .toList();
+        Comparator<MemberDto> byId = Comparator.comparing(MemberDto::getId);
+        assertEquals(expected.stream().sorted(byId).toList(), dtos.stream().sorted(byId).toList());
+        assertEquals(2, dtos.size());
+
+        MemberDto single = memberRepository.findOptionalDtoByUsername("fastSingle").orElseThrow();
+        assertEquals("fastTeam", single.getTeamName());
+        assertTrue(memberRepository.findOptionalDtoByUsername("noSuchMember").isEmpty());
+        assertThrows(IncorrectResultSizeDataAccessException.class,
+                () -> memberRepository.findOptionalDtoByUsername("fast"));
+    }
+}
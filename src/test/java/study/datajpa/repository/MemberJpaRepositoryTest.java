@@ -6,12 +6,19 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.test.annotation.Commit;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
+import study.datajpa.repository.support.BatchInsertResult;
 
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -22,6 +29,7 @@ import static org.junit.jupiter.api.Assertions.*;
 class MemberJpaRepositoryTest {
 
     @Autowired MemberJpaRepository memberJpaRepository;
+    @Autowired EntityManager em;
 
     @Test
     //@Order(value = 1)
@@ -116,6 +124,130 @@ class MemberJpaRepositoryTest {
         assertEquals(6, totalCount);
     }
 
+    @Test
+    void keysetPaging() {
+        // given
+        memberJpaRepository.save(new Member("member1", 33));
+        memberJpaRepository.save(new Member("member2", 33));
+        memberJpaRepository.save(new Member("member3", 33));
+        memberJpaRepository.save(new Member("member4", 33));
+        memberJpaRepository.save(new Member("member5", 33));
+
+        int age = 33;
+        int limit = 3;
+
+        // when
+        KeysetSlice<Member> first = memberJpaRepository.findByKeyset(age, null, limit);
+        KeysetSlice<Member> second = memberJpaRepository.findByKeyset(age, first.getNextCursor(), limit);
+
+        // then
+        assertEquals(limit, first.getContent().size());
+        assertEquals("member3", first.getContent().get(2).getUsername());
+        assertTrue(first.hasNext());
+        assertEquals(2, second.getContent().size());
+        assertEquals("member2", second.getContent().get(0).getUsername());
+        assertFalse(second.hasNext());
+
+        // size는 1 이상 (@Repository 예외 변환: IllegalArgumentException --> InvalidDataAccessApiUsageException)
+        assertThrows(InvalidDataAccessApiUsageException.class, () -> memberJpaRepository.findByKeyset(age, null, 0));
+    }
+
+    @Test
+    void saveAllBatched() {
+        // given
+        long before = memberJpaRepository.count();
+        List<Member> members = IntStream.rangeClosed(1, 250)
+                .mapToObj(i -> new Member("batch" + i, 50))
+                .toList();
+
+        // when
+        // 100개 마다 flush(JDBC 배치 insert) + clear
+        BatchInsertResult result = memberJpaRepository.saveAllBatched(members, 100);
+
+        // then
+        assertEquals(250, result.rows());
+        assertEquals(3, result.batches());
+        assertEquals(before + 250, memberJpaRepository.count());
+        // clear 되었으므로 다시 조회하면 새로운 인스턴스가 반환된다.
+        assertNotSame(members.get(0), memberJpaRepository.find(members.get(0).getId()));
+    }
+
+    @Test
+    void streamAll() {
+        // given
+        memberJpaRepository.save(new Member("member1", 10));
+        memberJpaRepository.save(new Member("member2", 10));
+        memberJpaRepository.save(new Member("member3", 10));
+        long total = memberJpaRepository.count();
+
+        // when
+        // 2개 마다 처리한 엔티티를 영속성 컨텍스트에서 내보낸다. 스트림은 반드시 close 해야 한다.
+        long streamed;
+        try (Stream<Member> stream = memberJpaRepository.streamAll(100, 2)) {
+            streamed = stream.count();
+        }
+        long dtoStreamed;
+        try (Stream<MemberDto> stream = memberJpaRepository.streamAllMemberDto(100)) {
+            dtoStreamed = stream.count();
+        }
+
+        // then
+        assertEquals(total, streamed);
+        assertEquals(total, dtoStreamed);
+    }
+
+    // 처리 중인 엔티티는 영속 상태, 이미 처리한 엔티티는 interval 마다 준영속 상태가 된다.
+    @Test
+    void streamAllDetachesEmittedEntities() {
+        for (int i = 0; i < 5; i++) {
+            memberJpaRepository.save(new Member("stream" + i, 10));
+        }
+        em.flush();
+        em.clear();
+
+        List<Member> emitted = new ArrayList<>();
+        try (Stream<Member> stream = memberJpaRepository.streamAll(100, 2)) {
+            stream.limit(5).forEach(member -> {
+                assertTrue(em.contains(member));
+                emitted.add(member);
+            });
+        }
+
+        // 5번째 row를 읽기 전에 앞의 4개가 detach 되었다.
+        assertFalse(em.contains(emitted.get(0)));
+        assertFalse(em.contains(emitted.get(3)));
+        assertTrue(em.contains(emitted.get(4)));
+    }
+
+    // 스트리밍 도중 영속성 컨텍스트를 비워도 호출한 쪽이 바꾼 다른 엔티티, 소비자가 바꾼 엔티티의 변경이 사라지지 않는다.
+    @Test
+    void streamAllKeepsPendingChanges() {
+        Member other = memberJpaRepository.save(new Member("other", 10));
+        for (int i = 0; i < 5; i++) {
+            memberJpaRepository.save(new Member("stream" + i, 10));
+        }
+        em.flush();
+        em.clear();
+
+        Member managed = memberJpaRepository.find(other.getId());
+        managed.setAge(99);     // flush 되지 않은 변경
+
+        Long changedId;
+        try (Stream<Member> stream = memberJpaRepository.streamAll(100, 2)) {
+            Member first = stream.filter(member -> member.getUsername().startsWith("stream")).findFirst().orElseThrow();
+            first.setAge(77);
+            changedId = first.getId();
+        }
+        try (Stream<Member> stream = memberJpaRepository.streamAll(100, 2)) {
+            assertTrue(stream.count() >= 6);   // interval을 여러 번 넘긴다.
+        }
+
+        em.flush();
+        em.clear();
+        assertEquals(99, memberJpaRepository.find(other.getId()).getAge());
+        assertEquals(77, memberJpaRepository.find(changedId).getAge());
+    }
+
     @Test
     @Commit
     public void bulkUpdate() {
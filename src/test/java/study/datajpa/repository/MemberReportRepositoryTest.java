@@ -0,0 +1,44 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class MemberReportRepositoryTest {
+
+    @Autowired
+    MemberReportRepository memberReportRepository;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    EntityManager em;
+
+    @Test
+    void readOnlyQuery() {
+        // given
+        memberRepository.save(new Member("report1", 38));
+        em.flush();
+        em.clear();
+
+        // when
+        // 바깥 트랜잭션(테스트)은 읽기/쓰기 트랜잭션이지만, 쿼리 힌트로 조회한 엔티티는 읽기 전용이다.
+        List<Member> members = memberReportRepository.findByAge(38);
+        Member member = members.get(0);
+        member.setUsername("changed");
+        em.flush();
+        em.clear();
+
+        // then
+        // 변경 감지 대상이 아니므로 update 쿼리가 나가지 않는다.
+        assertEquals("report1", memberReportRepository.findByAge(38).get(0).getUsername());
+    }
+}
@@ -1,9 +1,13 @@
 package study.datajpa.repository;
 
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Slice;
@@ -11,8 +15,11 @@ import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.Commit;
 import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberSummary;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
+import study.datajpa.repository.support.CountStrategy;
+import study.datajpa.repository.support.InQueryOptions;
 
 import javax.persistence.EntityManager;
 import java.util.Arrays;
@@ -146,6 +153,40 @@ class MemberRepositoryTest {
         assertEquals(new MemberDto(member1.getId(), "AAA", "teamA"), memberDtoList.get(0));
     }
 
+    @Test
+    void projections() {
+        Team team = new Team("teamA");
+        teamRepository.save(team);
+        Member member1 = new Member("projection1", 37, team);
+        Member member2 = new Member("projection2", 37);
+        memberRepository.save(member1);
+        memberRepository.save(member2);
+        em.flush();
+        em.clear();
+
+        // 인터페이스 기반 Closed Projection
+        List<UsernameOnly> usernames = memberRepository.findProjectionsByUsername("projection1");
+        assertEquals("projection1", usernames.get(0).getUsername());
+
+        // @Query + 인터페이스 Projection
+        MemberView view = memberRepository.findMemberViews().stream()
+                .filter(v -> v.getId().equals(member1.getId()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("teamA", view.getTeamName());
+
+        // 동적 Projection: record
+        List<MemberSummary> summaries = memberRepository.findByAge(37, MemberSummary.class);
+        assertEquals(2, summaries.size());
+        assertTrue(summaries.contains(new MemberSummary(member2.getId(), "projection2", 37)));
+
+        // 동적 Projection: 인터페이스
+        assertEquals(1, memberRepository.findProjectionsByUsername("projection2", UsernameOnly.class).size());
+
+        // Projection 결과는 엔티티가 아니므로 영속성 컨텍스트에 올라가지 않는다.
+        assertEquals(0, em.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
     @Test
     void findByNames() {
         Member member1 = new Member("AAA", 10);
@@ -158,6 +199,23 @@ class MemberRepositoryTest {
         assertEquals(List.of(member1, member2), members);
     }
 
+    @Test
+    void findByNamesWithInQueryOptions() {
+        Member member1 = memberRepository.save(new Member("in1", 10));
+        Member member2 = memberRepository.save(new Member("in2", 20));
+        Member member3 = memberRepository.save(new Member("in3", 30));
+        em.flush();
+        List<String> names = List.of("in3", "in1", "none", "in2", "in1");
+
+        // 청크 2개씩 나눠서 조회, 입력 순서 유지 (중복 키는 한 번만)
+        List<Member> chunked = memberRepository.findByNames(names, new InQueryOptions(2, 1, true, 0));
+        // 임시 테이블 조인
+        List<Member> joined = memberRepository.findByNames(names, new InQueryOptions(2, 1, true, 2));
+
+        assertEquals(List.of(member3, member1, member2), chunked);
+        assertEquals(List.of(member3, member1, member2), joined);
+    }
+
     @Test
     void returnType() {
         Member member1 = new Member("AAA", 10);
@@ -295,6 +353,79 @@ class MemberRepositoryTest {
 
     }
 
+    @Test
+    void pagingWithKeyset() {
+        // given
+        memberRepository.save(new Member("member1", 33));
+        memberRepository.save(new Member("member2", 33));
+        memberRepository.save(new Member("member3", 33));
+        memberRepository.save(new Member("member3", 33)); // username이 같으면 id로 순서를 정한다.
+        memberRepository.save(new Member("member5", 33));
+
+        int age = 33;
+        int size = 2;
+
+        // 키셋 페이징 //
+        // offset 없이 "마지막으로 본 (username, id) 보다 작은 것"을 조건으로 다음 페이지를 가져온다.
+        KeysetSlice<Member> first = memberRepository.findKeysetByAge(age, null, size);
+        // 커서는 문자열로 주고 받을 수 있다. (API 응답에 담아 클라이언트에게 전달)
+        KeysetCursor cursor = KeysetCursor.decode(first.getNextCursor().encode());
+        KeysetSlice<Member> second = memberRepository.findKeysetByAge(age, cursor, size);
+        KeysetSlice<Member> last = memberRepository.findKeysetByAge(age, second.getNextCursor(), size);
+
+        // then
+        assertEquals(List.of("member5", "member3"), first.getContent().stream().map(Member::getUsername).toList());
+        assertEquals(List.of("member3", "member2"), second.getContent().stream().map(Member::getUsername).toList());
+        assertEquals(List.of("member1"), last.getContent().stream().map(Member::getUsername).toList());
+        assertTrue(first.hasNext());
+        assertTrue(second.hasNext());
+        assertFalse(last.hasNext());
+
+        // 같은 username(member3) 두 명이 페이지 경계에서 빠지거나 중복되지 않는다.
+        assertTrue(first.getContent().get(1).getId() > second.getContent().get(0).getId());
+
+        // size는 1 이상
+        assertThrows(InvalidDataAccessApiUsageException.class, () -> memberRepository.findKeysetByAge(age, null, 0));
+    }
+
+    @Test
+    void pagingWithCountStrategy() {
+        // given
+        for (int i = 1; i <= 7; i++) {
+            memberRepository.save(new Member("member" + i, 34));
+        }
+        for (int i = 1; i <= 3; i++) {
+            memberRepository.save(new Member("older" + i, 35));
+        }
+
+        int age = 34;
+        PageRequest pageRequest = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "username"));
+
+        // CACHED: 처음에만 카운트 쿼리가 나가고, 이후에는 캐시된 총 갯수를 사용한다.
+        Page<Member> cached = memberRepository.findPageByAge(age, pageRequest, CountStrategy.CACHED);
+        assertEquals(7, cached.getTotalElements());
+        assertEquals("member7", cached.getContent().get(0).getUsername());
+        assertEquals(3, memberRepository.findPageByAge(35, pageRequest, CountStrategy.CACHED).getTotalElements());
+
+        // Member가 저장되면 카운트 캐시가 비워진다. (트랜잭션 안에서는 커밋 전까지 캐시를 거치지 않는다.)
+        memberRepository.save(new Member("member8", 34));
+        assertEquals(8, memberRepository.findPageByAge(age, pageRequest, CountStrategy.CACHED).getTotalElements());
+        assertEquals(3, memberRepository.findPageByAge(35, pageRequest, CountStrategy.CACHED).getTotalElements());
+
+        // 벌크 연산 후에도 카운트 캐시가 비워진다. (age 34 --> 35, 35 --> 36)
+        // 페이지가 꽉 차 있으므로 총 갯수는 카운트에서 온다. 같은 트랜잭션에서 바꾼 엔티티 타입은 캐시를 거치지 않으므로
+        // 커밋 전에도 3이 아니라 8이 나온다. (커밋 시점 무효화는 PageCountCacheTest 참고)
+        memberRepository.bulkAgePlus(34);
+        Page<Member> afterBulk = memberRepository.findPageByAge(35, pageRequest, CountStrategy.CACHED);
+        assertEquals(2, afterBulk.getContent().size());
+        assertEquals(8, afterBulk.getTotalElements());
+
+        // ESTIMATED: 현재 페이지 기준 일정 범위(estimate-pages)까지만 센다. 데이터가 적으면 정확한 값과 같다.
+        Page<Member> estimated = memberRepository.findPageByAge(35, pageRequest, CountStrategy.ESTIMATED);
+        assertEquals(8, estimated.getTotalElements());
+        assertEquals(4, estimated.getTotalPages());
+    }
+
     @Test
     void pagingWithPageAndCustomQuery() {
         // given
@@ -355,6 +486,48 @@ class MemberRepositoryTest {
 
     }
 
+    @Test
+    void fetchPlanStatementCount() {
+        // given
+        Team team = teamRepository.save(new Team("fetchTeam"));
+        Member saved = memberRepository.save(new Member("fetchMember", 10, team));
+        em.flush();
+        em.clear();
+
+        // 하이버네이트 통계로 실제 실행된 SQL 수를 센다.
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        boolean statisticsEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+        try {
+            // 지연 로딩: member 조회 1번 + team 프록시 초기화 1번
+            statistics.clear();
+            memberRepository.findByUsername("fetchMember", MemberFetchPlan.DEFAULT)
+                    .forEach(member -> member.getTeam().getName());
+            assertEquals(2, statistics.getPrepareStatementCount());
+            em.clear();
+
+            // 엔티티 그래프: member + team fetch join 1번
+            statistics.clear();
+            memberRepository.findByUsername("fetchMember", MemberFetchPlan.TEAM)
+                    .forEach(member -> member.getTeam().getName());
+            assertEquals(1, statistics.getPrepareStatementCount());
+            em.clear();
+
+            statistics.clear();
+            memberRepository.findWithTeamByUsername("fetchMember")
+                    .forEach(member -> member.getTeam().getName());
+            assertEquals(1, statistics.getPrepareStatementCount());
+            em.clear();
+
+            // 단건 조회도 마찬가지 (MemberController.get)
+            statistics.clear();
+            memberRepository.findWithTeamById(saved.getId()).orElseThrow().getTeam().getName();
+            assertEquals(1, statistics.getPrepareStatementCount());
+        } finally {
+            statistics.setStatisticsEnabled(statisticsEnabled);
+        }
+    }
+
     @Test
     //@Commit
     public void bulkUpdateWithoutClear() {
@@ -0,0 +1,110 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/*
+읽기 전용 조회 메모리 비교 (Member 10만 건)
+- 일반 조회: 엔티티 + 변경 감지용 스냅샷(엔티티 필드 값 복사본)이 영속성 컨텍스트에 남는다.
+- 읽기 전용 조회: 스냅샷을 만들지 않는다.
+- 조회한 결과를 영속성 컨텍스트에 잡아 둔 상태에서 GC 후 힙 사용량 차이, 조회 중 할당량, flush 시간을 비교한다.
+
+일반 테스트에서는 제외되어 있다. 실행: ./gradlew benchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest
+class ReadOnlyQueryBenchmarkTest {
+
+    static final int MEMBER_COUNT = 100_000;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+    @Autowired
+    EntityManager em;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        memberJpaRepository.saveAllBatched(
+                IntStream.range(0, MEMBER_COUNT).mapToObj(i -> new Member("bench" + i, i % 100)).toList(),
+                1000);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                em.createQuery("delete from Member m where m.username like 'bench%'").executeUpdate());
+    }
+
+    @Test
+    void memoryPer100kMembers() {
+        // 워밍업 (쿼리 계획, 클래스 로딩)
+        measure("warm-up", memberJpaRepository::findAll);
+        measure("warm-up", memberJpaRepository::findAllReadOnly);
+
+        Result readWrite = measure("read-write", memberJpaRepository::findAll);
+        Result readOnly = measure("read-only", memberJpaRepository::findAllReadOnly);
+
+        System.out.println(readWrite);
+        System.out.println(readOnly);
+        System.out.printf("retained heap saved: %.1f%%%n",
+                100.0 * (readWrite.retainedBytes - readOnly.retainedBytes) / readWrite.retainedBytes);
+    }
+
+    private Result measure(String name, Supplier<List<Member>> query) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            em.clear();
+            long heapBefore = usedHeapAfterGc();
+            long allocatedBefore = allocatedBytes();
+
+            List<Member> members = query.get();
+
+            long allocated = allocatedBytes() - allocatedBefore;
+            long retained = usedHeapAfterGc() - heapBefore;
+
+            long flushStart = System.nanoTime();
+            em.flush();
+            long flushNanos = System.nanoTime() - flushStart;
+
+            status.setRollbackOnly();
+            return new Result(name, members.size(), retained, allocated, flushNanos);
+        });
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    record Result(String name, int rows, long retainedBytes, long allocatedBytes, long flushNanos) {
+
+        @Override
+        public String toString() {
+            return String.format("%-10s rows=%d retained=%.1fMB (%.0f bytes/member) allocated=%.1fMB flush=%.1fms",
+                    name, rows, retainedBytes / 1024.0 / 1024.0, (double) retainedBytes / rows,
+                    allocatedBytes / 1024.0 / 1024.0, flushNanos / 1_000_000.0);
+        }
+    }
+}
@@ -1,15 +1,18 @@
 package study.datajpa.repository;
 
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
 
+import javax.persistence.Cache;
 import javax.persistence.EntityManager;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -84,6 +87,53 @@ class TeamRepositoryTest {
 
     }
 
+    // 2차 캐시 확인
+    // 영속성 컨텍스트(1차 캐시)를 비워도 2차 캐시에 있는 엔티티는 DB 조회 없이 가져온다.
+    @Test
+    void secondLevelCache() {
+        Team team = teamRepository.save(new Team("Cached", "Korea"));
+        Member member = memberRepository.save(new Member("cachedMember", 20, team));
+        em.flush();
+        em.clear();
+
+        Cache cache = em.getEntityManagerFactory().getCache();
+        cache.evictAll();
+
+        // DB 조회 후 2차 캐시에 저장된다.
+        teamRepository.findById(team.getId());
+        memberRepository.findById(member.getId());
+        assertTrue(cache.contains(Team.class, team.getId()));
+        assertTrue(cache.contains(Member.class, member.getId()));
+
+        // 벌크 연산은 2차 캐시를 거치지 않으므로 하이버네이트가 Member 캐시를 통째로 비운다.
+        memberRepository.bulkAgePlus(20);
+        assertFalse(cache.contains(Member.class, member.getId()));
+        assertTrue(cache.contains(Team.class, team.getId()));
+    }
+
+    // 팀원이 많은 팀: 팀원 추가, 팀원 수 확인 시 컬렉션을 로딩하지 않는다.
+    @Test
+    void largeTeamMembers() {
+        Team team = teamRepository.save(new Team("Large", "Korea"));
+        for (int i = 0; i < 5; i++) {
+            memberRepository.save(new Member("large" + i, 20, team));
+        }
+        em.flush();
+        em.clear();
+
+        Team found = teamRepository.findById(team.getId()).orElseThrow();
+        memberRepository.save(new Member("large5", 20, found));
+
+        // EXTRA: count 쿼리로 처리 (큐에 쌓인 추가 작업이 있으면 먼저 flush 하므로 flush 전의 새 팀원도 센다.)
+        assertEquals(6, found.getMembers().size());
+        assertFalse(Hibernate.isInitialized(found.getMembers()));
+
+        Slice<Member> firstPage = teamRepository.findMembersByTeamId(team.getId(), PageRequest.of(0, 4, Sort.by("username")));
+        assertEquals(4, firstPage.getNumberOfElements());
+        assertTrue(firstPage.hasNext());
+        assertEquals(6, teamRepository.countMembersByTeamId(team.getId()));
+    }
+
     static class TeamDto {
 
         private String name;
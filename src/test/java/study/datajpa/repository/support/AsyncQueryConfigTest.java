@@ -0,0 +1,29 @@
+package study.datajpa.repository.support;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class AsyncQueryConfigTest {
+
+    @Autowired
+    ApplicationContext context;
+    @Autowired
+    TaskExecutor taskExecutor;
+
+    // 조회 전용 실행기는 이름으로만 쓰고, 타입으로 주입받으면 스프링 부트 기본 실행기가 온다.
+    @Test
+    void queryExecutorDoesNotReplaceApplicationTaskExecutor() {
+        Object applicationTaskExecutor = context.getBean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME);
+        assertInstanceOf(ThreadPoolTaskExecutor.class, applicationTaskExecutor);
+        assertSame(applicationTaskExecutor, taskExecutor);
+        assertNotSame(context.getBean(AsyncQueryConfig.QUERY_EXECUTOR), taskExecutor);
+    }
+}
@@ -0,0 +1,118 @@
+package study.datajpa.repository.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 카운트 캐시는 커밋 시점에 비워지므로 테스트 트랜잭션 없이 실행하고 직접 지운다.
+@SpringBootTest
+class PageCountCacheTest {
+
+    private static final int AGE = 77;
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 2);
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    MemberEventCounter memberEvents;
+
+    TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        for (int i = 0; i < 3; i++) {
+            memberRepository.save(new Member("countCache" + i, AGE));
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllInBatch(memberRepository.findByAge(AGE, Member.class));
+    }
+
+    // 트랜잭션 안의 변경은 커밋할 때 비운다. 커밋 전에는 그 트랜잭션만 새 카운트를 본다.
+    @Test
+    void evictedAtCommit() {
+        assertEquals(3, cachedCount());
+
+        transaction.executeWithoutResult(status -> {
+            memberRepository.save(new Member("countCache3", AGE));
+            assertEquals(4, cachedCount());
+            assertEquals(3, CompletableFuture.supplyAsync(this::cachedCount).join());   // 다른 스레드는 커밋된 값
+        });
+
+        assertEquals(4, cachedCount());
+    }
+
+    // 롤백되면 캐시를 비우지 않는다.
+    @Test
+    void keptOnRollback() {
+        assertEquals(3, cachedCount());
+
+        transaction.executeWithoutResult(status -> {
+            memberRepository.save(new Member("countCache3", AGE));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(3, cachedCount());
+    }
+
+    // 대량 insert는 persist 마다가 아니라 flush 한 배치마다 이벤트를 한 번 발행한다.
+    @Test
+    void batchInsertPublishesPerBatch() {
+        assertEquals(3, cachedCount());
+        memberEvents.count.set(0);
+
+        memberRepository.saveAllBatched(IntStream.range(0, 25)
+                .mapToObj(i -> new Member("countCacheBatch" + i, AGE))
+                .toList(), 10);
+
+        assertEquals(3, memberEvents.count.get());
+        assertEquals(28, cachedCount());
+    }
+
+    private long cachedCount() {
+        return memberRepository.findPageByAge(AGE, FIRST_PAGE, CountStrategy.CACHED).getTotalElements();
+    }
+
+    @TestConfiguration
+    static class MemberEventCounterConfig {
+
+        @Bean
+        MemberEventCounter memberEventCounter() {
+            return new MemberEventCounter();
+        }
+    }
+
+    static class MemberEventCounter {
+
+        final AtomicInteger count = new AtomicInteger();
+
+        @EventListener
+        void onEntityChanged(EntityChangedEvent event) {
+            if (event.entityType() == Member.class) {
+                count.incrementAndGet();
+            }
+        }
+    }
+}
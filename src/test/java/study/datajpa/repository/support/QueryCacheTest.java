@@ -0,0 +1,107 @@
+package study.datajpa.repository.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 캐시는 커밋 시점에 반영되므로 테스트 트랜잭션 없이 실행하고 직접 지운다.
+@SpringBootTest
+class QueryCacheTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    CacheManager cacheManager;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    TransactionTemplate transaction;
+    Team team;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        team = teamRepository.save(new Team("cacheTeam"));
+        memberRepository.save(new Member("cache1", 10, team));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllInBatch(memberRepository.findAll().stream()
+                .filter(member -> member.getUsername() != null && member.getUsername().startsWith("cache"))
+                .toList());
+        teamRepository.deleteAllInBatch(List.of(team));
+    }
+
+    @Test
+    void cachedUntilChanged() {
+        List<MemberDto> first = memberRepository.findMemberDto();
+        assertSame(first, memberRepository.findMemberDto());
+
+        memberRepository.save(new Member("cache2", 10, team));
+
+        List<MemberDto> afterSave = memberRepository.findMemberDto();
+        assertNotSame(first, afterSave);
+        assertEquals(first.size() + 1, afterSave.size());
+
+        // 벌크 연산(deleteAllInBatch)도 캐시를 비운다.
+        List<String> usernames = memberRepository.findUsernameList();
+        memberRepository.deleteAllInBatch(memberRepository.findByUsername("cache2"));
+        assertEquals(usernames.size() - 1, memberRepository.findUsernameList().size());
+    }
+
+    // 트랜잭션 안에서 조회한 결과(커밋 되지 않은 row 포함)는 캐시에 들어가지 않는다.
+    @Test
+    void uncommittedResultIsNotShared() {
+        memberDtoCache().clear();
+
+        transaction.executeWithoutResult(status -> {
+            memberRepository.saveAndFlush(new Member("cacheUncommitted", 10, team));
+            assertTrue(memberRepository.findMemberDto().stream()
+                    .anyMatch(dto -> dto.getUsername().equals("cacheUncommitted")));
+            assertNull(memberDtoCache().get(SimpleKey.EMPTY));
+            status.setRollbackOnly();
+        });
+
+        assertNull(memberDtoCache().get(SimpleKey.EMPTY));
+        assertTrue(memberRepository.findMemberDto().stream()
+                .noneMatch(dto -> dto.getUsername().equals("cacheUncommitted")));
+    }
+
+    // persist 마다 비우지 않고 커밋할 때 한 번 비운다.
+    @Test
+    void evictedOnceAtCommit() {
+        memberRepository.findMemberDto();
+        assertNotNull(memberDtoCache().get(SimpleKey.EMPTY));
+
+        transaction.executeWithoutResult(status -> {
+            memberRepository.save(new Member("cache3", 10, team));
+            memberRepository.save(new Member("cache4", 10, team));
+            assertNotNull(memberDtoCache().get(SimpleKey.EMPTY));
+        });
+
+        assertNull(memberDtoCache().get(SimpleKey.EMPTY));
+    }
+
+    private Cache memberDtoCache() {
+        return cacheManager.getCache(QueryCacheConfig.MEMBER_DTOS);
+    }
+}
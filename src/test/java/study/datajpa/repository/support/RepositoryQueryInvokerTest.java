@@ -0,0 +1,89 @@
+package study.datajpa.repository.support;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.KeysetCursor;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.MemberRepository;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepositoryQueryInvokerTest {
+
+    @Test
+    void queryMethodsIncludeInheritedQueries() throws Exception {
+        List<Method> methods = RepositoryQueryInvoker.queryMethods(MemberRepository.class);
+
+        // MemberRepository에 선언된 메서드
+        assertTrue(methods.contains(MemberRepository.class.getMethod("findAllWithTeamBy", Pageable.class)));
+        // MemberRepositoryCustom
+        assertTrue(methods.contains(MemberRepository.class.getMethod("findKeysetByAge", int.class, KeysetCursor.class, int.class)));
+        assertTrue(methods.contains(MemberRepository.class.getMethod("findPageByAge", int.class, Pageable.class, CountStrategy.class)));
+        assertTrue(methods.contains(MemberRepository.class.getMethod("findDtoByUsernameAndAgeGreaterThan", String.class, int.class)));
+        // JpaRepository
+        assertTrue(methods.contains(MemberRepository.class.getMethod("findAll", Pageable.class)));
+        assertTrue(methods.contains(MemberRepository.class.getMethod("findById", Object.class)));
+        assertTrue(methods.contains(MemberRepository.class.getMethod("count")));
+    }
+
+    @Test
+    void queryMethodsExcludeModifyingMethods() {
+        List<String> names = RepositoryQueryInvoker.queryMethods(MemberRepository.class).stream().map(Method::getName).toList();
+
+        assertFalse(names.contains("bulkAgePlus"));         // @Modifying
+        assertFalse(names.contains("saveAllBatched"));      // MemberRepositoryCustom
+        assertFalse(names.contains("save"));
+        assertFalse(names.contains("deleteAllInBatch"));
+        assertFalse(names.contains("getById"));
+    }
+
+    @Test
+    void queryMethodsOfJpaRepositoryClass() {
+        List<String> names = RepositoryQueryInvoker.queryMethods(MemberJpaRepository.class).stream().map(Method::getName).toList();
+
+        assertTrue(names.contains("findByUsername"));
+        assertFalse(names.contains("save"));
+        assertFalse(names.contains("delete"));
+    }
+
+    @Test
+    void dummyArguments() throws Exception {
+        // 제네릭 ID 파라미터는 리포지토리 타입 기준으로 푼다.
+        Method findById = MemberRepository.class.getMethod("findById", Object.class);
+        assertArrayEquals(new Object[]{1L}, RepositoryQueryInvoker.dummyArguments(findById, MemberRepository.class, Member.class));
+
+        Method findKeysetByAge = MemberRepository.class.getMethod("findKeysetByAge", int.class, KeysetCursor.class, int.class);
+        assertArrayEquals(new Object[]{1, null, 1}, RepositoryQueryInvoker.dummyArguments(findKeysetByAge, MemberRepository.class, Member.class));
+
+        Method findPageByAge = MemberRepository.class.getMethod("findPageByAge", int.class, Pageable.class, CountStrategy.class);
+        assertEquals(CountStrategy.values()[0], RepositoryQueryInvoker.dummyArguments(findPageByAge, MemberRepository.class, Member.class)[2]);
+    }
+
+    // 운영 DB에서 실행해도 되는 메서드만 (QueryWarmup)
+    @Test
+    void boundedQueryMethods() {
+        List<String> bounded = RepositoryQueryInvoker.boundedQueryMethods(MemberRepository.class).stream()
+                .map(method -> method.getName() + method.getParameterCount())
+                .toList();
+
+        assertTrue(bounded.contains("findById1"));
+        assertTrue(bounded.contains("findAll1"));              // findAll(Pageable)
+        assertTrue(bounded.contains("findKeysetByAge3"));
+        assertTrue(bounded.contains("count0"));
+        assertFalse(bounded.contains("findAllWithTeamBy0"));   // List: 테이블 전체
+        assertFalse(bounded.contains("findMemberDto0"));
+        assertFalse(bounded.contains("findUsernameList0"));
+        assertFalse(bounded.contains("findByAge2"));           // 동적 Projection (List)
+        assertFalse(bounded.contains("findWithLockById1"));    // @Lock
+
+        List<String> jpa = RepositoryQueryInvoker.boundedQueryMethods(MemberJpaRepository.class).stream().map(Method::getName).toList();
+        assertFalse(jpa.contains("findAll"));
+        assertFalse(jpa.contains("findAllReadOnly"));
+        assertFalse(jpa.contains("findByIdForUpdate"));
+        assertTrue(jpa.contains("totalCount"));
+    }
+}
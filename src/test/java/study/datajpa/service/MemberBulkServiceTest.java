@@ -0,0 +1,53 @@
+package study.datajpa.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.support.ChunkedUpdateOptions;
+import study.datajpa.repository.support.ChunkedUpdateResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 청크마다 커밋하는 기능이라 테스트에 @Transactional을 붙이지 않는다. 대신 저장한 데이터를 직접 지운다.
+@SpringBootTest
+class MemberBulkServiceTest {
+
+    @Autowired
+    MemberBulkService memberBulkService;
+    @Autowired
+    MemberRepository memberRepository;
+
+    List<Member> saved = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllInBatch(saved);
+    }
+
+    @Test
+    void agePlusInChunks() {
+        // given
+        for (int i = 0; i < 10; i++) {
+            saved.add(memberRepository.save(new Member("bulk" + i, 90 + i)));
+        }
+
+        // when
+        // id 구간 3개씩, 2개 스레드에서 병렬로 실행
+        ChunkedUpdateResult result = memberBulkService.agePlus(95, new ChunkedUpdateOptions(3, 2));
+
+        // then
+        assertTrue(result.isComplete());
+        List<Member> members = memberRepository.findAllById(saved.stream().map(Member::getId).toList());
+        for (Member member : members) {
+            int index = Integer.parseInt(member.getUsername().substring("bulk".length()));
+            int expected = 90 + index >= 95 ? 90 + index + 1 : 90 + index;
+            assertEquals(expected, member.getAge());
+        }
+    }
+}
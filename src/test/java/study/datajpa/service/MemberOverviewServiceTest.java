@@ -0,0 +1,52 @@
+package study.datajpa.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 비동기 조회는 다른 스레드, 다른 트랜잭션에서 실행되므로 테스트에 @Transactional을 붙이지 않는다. 대신 저장한 데이터를 직접 지운다.
+@SpringBootTest
+class MemberOverviewServiceTest {
+
+    @Autowired
+    MemberOverviewService memberOverviewService;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllInBatch(memberRepository.findByAge(77, Member.class));
+        teamRepository.deleteAllInBatch(teamRepository.findByNationality("Overview", Team.class));
+    }
+
+    @Test
+    void overviewRunsQueriesConcurrently() {
+        // given
+        memberRepository.saveAll(List.of(new Member("overview1", 77), new Member("overview2", 77)));
+        teamRepository.save(new Team("overviewTeam", "Overview"));
+
+        // when
+        MemberOverviewService.MemberOverview overview = memberOverviewService
+                .overview(77, "Overview", PageRequest.of(0, 10, Sort.by("id")))
+                .join();
+
+        // then
+        assertEquals(2, overview.members().getTotalElements());
+        assertEquals("overview1", overview.members().getContent().get(0).username());
+        assertEquals(1, overview.teams().getTotalElements());
+        assertEquals("overviewTeam", overview.teams().getContent().get(0).name());
+    }
+}
@@ -0,0 +1,98 @@
+package study.datajpa.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.support.ConflictRetryExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 충돌이 나면 트랜잭션을 새로 시작하는 기능이라 테스트에 @Transactional을 붙이지 않는다. 대신 저장한 데이터를 직접 지운다.
+@SpringBootTest
+class MemberUpdateServiceTest {
+
+    @Autowired
+    MemberUpdateService memberUpdateService;
+    @Autowired
+    ConflictRetryExecutor conflictRetryExecutor;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    List<Member> saved = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllInBatch(saved);
+    }
+
+    @Test
+    void retryOnOptimisticLockConflict() {
+        // given
+        Member member = memberRepository.save(new Member("conflict", 10));
+        saved.add(member);
+        TransactionTemplate otherTransaction = new TransactionTemplate(transactionManager);
+        otherTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // when
+        Member updated = conflictRetryExecutor.execute(() -> {
+            Member found = memberRepository.findById(member.getId()).orElseThrow();
+            if (attempts.incrementAndGet() == 1) {
+                // 읽은 직후 다른 트랜잭션이 먼저 수정하고 커밋한다.
+                otherTransaction.executeWithoutResult(status ->
+                        memberRepository.findById(member.getId()).orElseThrow().setAge(50));
+            }
+            found.setAge(found.getAge() + 1);
+            return found;
+        });
+
+        // then
+        // 첫 시도는 충돌로 롤백, 두 번째 시도는 다른 트랜잭션이 수정한 값(50)을 다시 읽어서 수정한다.
+        assertEquals(2, attempts.get());
+        assertEquals(51, updated.getAge());
+        assertEquals(51, memberRepository.findById(member.getId()).orElseThrow().getAge());
+    }
+
+    @Test
+    void giveUpAfterMaxAttempts() {
+        // given
+        Member member = memberRepository.save(new Member("alwaysConflict", 10));
+        saved.add(member);
+        TransactionTemplate otherTransaction = new TransactionTemplate(transactionManager);
+        otherTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        // when, then
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> conflictRetryExecutor.run(() -> {
+            Member found = memberRepository.findById(member.getId()).orElseThrow();
+            otherTransaction.executeWithoutResult(status ->
+                    memberRepository.findById(member.getId()).orElseThrow().setAge(found.getAge() + 100));
+            found.setAge(found.getAge() + 1);
+        }));
+    }
+
+    @Test
+    void changeAge() {
+        Member member = memberRepository.save(new Member("changeAge", 10));
+        saved.add(member);
+
+        memberUpdateService.changeAge(member.getId(), age -> age + 5);
+        memberUpdateService.changeAgeWithLock(member.getId(), age -> age + 5);
+
+        Member found = memberRepository.findById(member.getId()).orElseThrow();
+        assertEquals(20, found.getAge());
+        assertEquals(2L, found.getVersion());
+    }
+}
@@ -0,0 +1,36 @@
+package study.datajpa.startup;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "datajpa.warmup.enabled=true")
+@ExtendWith(OutputCaptureExtension.class)
+class QueryWarmupTest {
+
+    private static final Pattern REPORT = Pattern.compile("compile (\\d+) query methods");
+
+    @Autowired
+    QueryWarmup queryWarmup;
+
+    @Test
+    void warmup(CapturedOutput output) {
+        queryWarmup.run(new DefaultApplicationArguments());
+
+        Matcher matcher = REPORT.matcher(output.getOut());
+        assertTrue(matcher.find(), output.getOut());
+        assertTrue(Integer.parseInt(matcher.group(1)) > 0);
+
+        // 락을 거는 쿼리(select ... for update)는 실행하지 않는다.
+        assertFalse(output.getOut().toLowerCase().contains("for update"));
+    }
+}